@@ -0,0 +1,75 @@
+// Read-path load test for comparing the platform-thread and virtual-thread request modes.
+//
+//   k6 run loadtest/posts.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e PEAK_VUS=1000 loadtest/posts.js
+//
+// Run it once against each mode with the same data and compare http_reqs (throughput),
+// http_req_duration p(95) and the error rate in the summary.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PEAK_VUS = parseInt(__ENV.PEAK_VUS || '500', 10);
+const USERNAME = __ENV.LOADTEST_USERNAME || 'loadtest';
+const PASSWORD = __ENV.LOADTEST_PASSWORD || 'loadtest-password';
+// Simulated client think time between requests, in seconds
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '0.1');
+
+export const options = {
+  stages: [
+    { duration: '30s', target: Math.ceil(PEAK_VUS / 5) },
+    { duration: '1m', target: PEAK_VUS },
+    { duration: '2m', target: PEAK_VUS },
+    { duration: '30s', target: 0 },
+  ],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(95)<1000'],
+  },
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export function setup() {
+  const credentials = JSON.stringify({ username: USERNAME, password: PASSWORD });
+  let res = http.post(`${BASE_URL}/api/auth/login`, credentials, { headers: JSON_HEADERS });
+  if (res.status !== 200) {
+    http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+      username: USERNAME,
+      email: `${USERNAME}@example.com`,
+      password: PASSWORD,
+    }), { headers: JSON_HEADERS });
+    res = http.post(`${BASE_URL}/api/auth/login`, credentials, { headers: JSON_HEADERS });
+  }
+  if (res.status !== 200) {
+    throw new Error(`Could not log in as ${USERNAME}: ${res.status} ${res.body}`);
+  }
+  const token = res.json('token');
+  const params = { headers: { Authorization: `Bearer ${token}` } };
+
+  const posts = http.get(`${BASE_URL}/api/posts?limit=100`, params);
+  const ids = posts.status === 200 ? posts.json().map((post) => post.id) : [];
+  if (ids.length === 0) {
+    throw new Error('No posts to read; seed some first, e.g. with POST /api/posts/import');
+  }
+  return { token, ids };
+}
+
+export default function (data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` } };
+
+  const list = http.get(`${BASE_URL}/api/posts?limit=20`, params);
+  check(list, { 'list 200': (r) => r.status === 200 });
+
+  const next = list.headers['X-Next-Cursor'];
+  if (next) {
+    const page = http.get(`${BASE_URL}/api/posts?limit=20&after=${encodeURIComponent(next)}`, params);
+    check(page, { 'next page 200': (r) => r.status === 200 });
+  }
+
+  const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+  const post = http.get(`${BASE_URL}/api/posts/${id}`, params);
+  check(post, { 'post 200': (r) => r.status === 200 });
+
+  sleep(THINK_TIME);
+}
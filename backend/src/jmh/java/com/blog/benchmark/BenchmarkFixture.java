@@ -0,0 +1,133 @@
+package com.blog.benchmark;
+
+import com.blog.BlogApplication;
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostImportRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Boots the application without a web server against an in-memory H2 database and seeds it
+ * with a fixed, reproducible data set for the read-path benchmarks.
+ */
+public final class BenchmarkFixture {
+
+    private static final int USERS = 50;
+    private static final int CATEGORIES = 20;
+    private static final int TAGS = 200;
+    private static final int TAGS_PER_POST = 3;
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private static final String CONTENT = "<p>" + "Benchmark post body with enough text to resemble a short article. ".repeat(10)
+            + "</p>";
+
+    private BenchmarkFixture() {
+    }
+
+    // Command-line arguments take precedence over application.properties, so the PostgreSQL
+    // settings there never apply
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(BlogApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        // Schema from the Flyway migrations, as in the test profile
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    /**
+     * Inserts the users, categories and tags, then {@code postCount} posts with three tags each,
+     * one second apart. Returns the post ids in insertion order (oldest first).
+     */
+    public static List<Long> seed(ApplicationContext context, int postCount) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        TagRepository tagRepository = context.getBean(TagRepository.class);
+        PostImportRepository postImportRepository = context.getBean(PostImportRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<User> users = new ArrayList<>();
+        List<Category> categories = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>();
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setUsername("author" + i);
+                user.setEmail("author" + i + "@example.com");
+                user.setPassword("not-a-real-hash");
+                user.getRoles().add(User.Role.ROLE_USER);
+                users.add(userRepository.save(user));
+            }
+            for (int i = 0; i < CATEGORIES; i++) {
+                Category category = new Category();
+                category.setName("Category " + i);
+                category.setDescription("Benchmark category " + i);
+                categories.add(categoryRepository.save(category));
+            }
+            for (int i = 0; i < TAGS; i++) {
+                Tag tag = new Tag();
+                tag.setName("tag-" + i);
+                tags.add(tagRepository.save(tag));
+            }
+        });
+
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(postCount);
+        List<Long> ids = new ArrayList<>(postCount);
+        for (int from = 0; from < postCount; from += SEED_BATCH_SIZE) {
+            int first = from;
+            int last = Math.min(postCount, from + SEED_BATCH_SIZE);
+            transaction.executeWithoutResult(status -> {
+                List<Post> posts = new ArrayList<>(last - first);
+                for (int i = first; i < last; i++) {
+                    Post post = new Post();
+                    post.setTitle("Benchmark post " + i);
+                    post.setContent(CONTENT);
+                    post.setAuthor(users.get(i % USERS));
+                    post.setCategory(categories.get(i % CATEGORIES));
+                    post.setCreatedAt(start.plusSeconds(i));
+                    post.setUpdatedAt(post.getCreatedAt());
+                    posts.add(post);
+                }
+                postImportRepository.insertPosts(posts);
+
+                Map<Long, Set<Long>> tagIdsByPostId = new HashMap<>();
+                for (int i = 0; i < posts.size(); i++) {
+                    Set<Long> tagIds = new HashSet<>();
+                    for (int t = 0; t < TAGS_PER_POST; t++) {
+                        tagIds.add(tags.get((first + i + t * 67) % TAGS).getId());
+                    }
+                    tagIdsByPostId.put(posts.get(i).getId(), tagIds);
+                }
+                postImportRepository.insertPostTags(tagIdsByPostId);
+                posts.forEach(post -> ids.add(post.getId()));
+            });
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,75 @@
+package com.blog.benchmark;
+
+import com.blog.dto.PostDTO;
+import com.blog.dto.TagDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of post lists as the web layer writes them, with the same date handling
+ * Spring Boot configures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<PostDTO> posts;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(new TypeReference<List<PostDTO>>() { });
+
+        LocalDateTime now = LocalDateTime.now();
+        posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Set<TagDTO> tags = new LinkedHashSet<>();
+            for (int t = 0; t < 3; t++) {
+                tags.add(new TagDTO((long) t, "tag-" + t, now, now));
+            }
+            PostDTO post = new PostDTO();
+            post.setId((long) i);
+            post.setTitle("Benchmark post " + i);
+            post.setContent("<p>" + "Benchmark post body with enough text to resemble a short article. ".repeat(10)
+                    + "</p>");
+            post.setAuthorId(1L);
+            post.setAuthorUsername("author");
+            post.setCategoryId(1L);
+            post.setCategoryName("Category");
+            post.setTags(tags);
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            posts.add(post);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePosts() throws JsonProcessingException {
+        return writer.writeValueAsBytes(posts);
+    }
+}
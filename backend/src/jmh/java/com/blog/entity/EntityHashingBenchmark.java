@@ -0,0 +1,86 @@
+package com.blog.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Regression guard for entity {@code equals}/{@code hashCode}: each tag here is linked to
+ * {@code associationSize} posts in both directions, and the scores must not change with it.
+ * With field-based equality the hash walked the association sets (and, on managed entities,
+ * lazy-loaded them), growing with their size or never terminating on the cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityHashingBenchmark {
+
+    private static final int TAGS = 5;
+
+    @Param({"10", "1000", "100000"})
+    public int associationSize;
+
+    private List<Tag> tags;
+    private Post post;
+    private Tag sameTag;
+
+    @Setup
+    public void setUp() {
+        tags = new ArrayList<>();
+        for (long t = 1; t <= TAGS; t++) {
+            Tag tag = new Tag();
+            tag.setId(t);
+            tag.setName("tag-" + t);
+            // Identity set, so building the fixture does not itself depend on entity hashing
+            tag.setPosts(Collections.newSetFromMap(new IdentityHashMap<>()));
+            tags.add(tag);
+        }
+        for (long p = 1; p <= associationSize; p++) {
+            Post linked = new Post();
+            linked.setId(p);
+            linked.setTitle("Post " + p);
+            linked.setTags(new HashSet<>(tags));
+            for (Tag tag : tags) {
+                tag.getPosts().add(linked);
+            }
+            post = linked;
+        }
+        sameTag = new Tag();
+        sameTag.setId(1L);
+    }
+
+    @Benchmark
+    public int tagHashCode() {
+        return tags.get(0).hashCode();
+    }
+
+    @Benchmark
+    public boolean tagEquals() {
+        return tags.get(0).equals(sameTag);
+    }
+
+    @Benchmark
+    public int postHashCode() {
+        return post.hashCode();
+    }
+
+    // What PostService does when it collects a post's tags
+    @Benchmark
+    public Set<Tag> collectTagsToSet() {
+        return tags.stream().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,74 @@
+package com.blog.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiter: a request no rule matches, one client hammering its own
+ * bucket from several threads (the compare-and-set contention case), and requests spread over
+ * many clients. Limits are set high enough that every request is allowed, so the numbers are the
+ * overhead added to requests that go through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+        setField(store, "idleTimeout", Duration.ofMinutes(10));
+        setField(store, "maximumKeys", 100_000L);
+        store.init();
+
+        rateLimiter = new RateLimiter();
+        setField(rateLimiter, "store", store);
+        setField(rateLimiter, "rules", "POST /api/auth/** 1000000000/1s ip, POST|PUT|DELETE /api/** 1000000000/1s user");
+        rateLimiter.init();
+
+        addresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            addresses[i] = "10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public RateLimitDecision unmatched() {
+        return rateLimiter.check("GET", "/api/posts", "10.0.0.1", null);
+    }
+
+    @Benchmark
+    public RateLimitDecision singleUser() {
+        return rateLimiter.check("POST", "/api/posts", "10.0.0.1", 1L);
+    }
+
+    @Benchmark
+    public RateLimitDecision manyClients() {
+        String address = addresses[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.check("POST", "/api/auth/login", address, null);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,53 @@
+package com.blog.service;
+
+import com.blog.benchmark.BenchmarkFixture;
+import com.blog.dto.PostDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The unpaginated {@code getAllPosts}, which materializes every post with its content, author and
+ * tags. Its size parameter is {@code listCount} rather than {@code postCount}, so
+ * {@code -PjmhPostCounts} does not push it to a million posts, which would not fit the benchmark
+ * heap next to the in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostListAllBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int listCount;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixture.start("post-list-all");
+        BenchmarkFixture.seed(context, listCount);
+        postService = context.getBean(PostService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostDTO> getAllPosts() {
+        return postService.getAllPosts();
+    }
+}
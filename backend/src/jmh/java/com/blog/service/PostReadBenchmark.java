@@ -0,0 +1,101 @@
+package com.blog.service;
+
+import com.blog.benchmark.BenchmarkFixture;
+import com.blog.dto.CursorPage;
+import com.blog.dto.PostCursor;
+import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.entity.Post;
+import com.blog.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of {@link PostService} against a seeded in-memory database. Lives in the service
+ * package so that the package-private {@code convertToDTO} can be measured on its own. The
+ * unpaginated {@code getAllPosts} is in {@link PostListAllBenchmark}, which stays at sizes that
+ * fit the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int postCount;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostCache postCache;
+    private List<Long> ids;
+    private Post loadedPost;
+    private Long hotId;
+    private String middleCursor;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixture.start("post-read");
+        ids = BenchmarkFixture.seed(context, postCount);
+        postService = context.getBean(PostService.class);
+        postCache = context.getBean(PostCache.class);
+
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        hotId = ids.get(ids.size() - 1);
+        loadedPost = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .execute(status -> postRepository.findByIdWithRelations(hotId).orElseThrow());
+
+        // Posts are ordered newest first, so the cursor of the middle id starts a page halfway down
+        Long middleId = ids.get(ids.size() / 2);
+        PostDTO middle = postService.getPostById(middleId);
+        middleCursor = new PostCursor(middle.getCreatedAt(), middle.getId()).encode();
+        postService.getPostById(hotId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostDTO convertToDTO() {
+        return postService.convertToDTO(loadedPost);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryDTO> getPostsFirstPage() {
+        return postService.getPosts(null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryDTO> getPostsMiddlePage() {
+        return postService.getPosts(middleCursor, 20);
+    }
+
+    @Benchmark
+    public PostDTO getPostByIdCached() {
+        return postService.getPostById(hotId);
+    }
+
+    // Walks the ids with a large prime stride and evicts first, so every call runs the loader
+    @Benchmark
+    public PostDTO getPostByIdUncached() {
+        Long id = ids.get(Math.floorMod(next++ * 7919, ids.size()));
+        postCache.evict(id);
+        return postService.getPostById(id);
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.service;
+
+import com.blog.dto.TagIndexStatsDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boolean tag queries against the in-memory index, without a database. Posts get three tags each
+ * from a skewed distribution over 200 tags, so tag 0 is on roughly a third of all posts and the
+ * tail tags are rare. Post ids are spaced like generated ids one minute apart, so the printed
+ * index size reflects real ids rather than a dense sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostTagIndexBenchmark {
+
+    private static final int TAG_COUNT = 200;
+    private static final int TAGS_PER_POST = 3;
+    // Generated ids keep the millisecond above 12 bits of node and sequence
+    private static final long ID_SPACING = 60_000L << 12;
+
+    @Param({"100000", "1000000"})
+    public int postCount;
+
+    private PostTagIndex index;
+    private Long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PostTagIndex();
+        Random random = new Random(42);
+        Map<Long, Set<Long>> tagIdsByPostId = new HashMap<>();
+        for (long post = 1; post <= postCount; post++) {
+            long postId = post * ID_SPACING;
+            Set<Long> tags = new HashSet<>();
+            while (tags.size() < TAGS_PER_POST) {
+                // Squaring a uniform value favours low tag ids
+                double skewed = Math.pow(random.nextDouble(), 2);
+                tags.add((long) (skewed * TAG_COUNT));
+            }
+            tagIdsByPostId.put(postId, tags);
+            if (tagIdsByPostId.size() == 100_000) {
+                index.addPosts(tagIdsByPostId);
+                tagIdsByPostId.clear();
+            }
+        }
+        index.addPosts(tagIdsByPostId);
+        middleId = postCount / 2 * ID_SPACING;
+
+        TagIndexStatsDTO stats = index.stats();
+        System.out.printf("%nTag index: %d posts, %d entries, %d bytes, %.2f bytes/entry, %d bytes per million posts%n",
+                stats.getPosts(), stats.getEntries(), stats.getSizeInBytes(), stats.getBytesPerEntry(),
+                stats.getBytesPerMillionPosts());
+    }
+
+    // Two common tags
+    @Benchmark
+    public List<Long> allOfTwoCommonTags() {
+        return index.query(List.of(0L, 1L), List.of(), List.of(), null, 21);
+    }
+
+    // Common AND rare, excluding a common tag
+    @Benchmark
+    public List<Long> allOfWithExclusion() {
+        return index.query(List.of(0L, 150L), List.of(), List.of(2L), null, 21);
+    }
+
+    @Benchmark
+    public List<Long> anyOfFiveTags() {
+        return index.query(List.of(), List.of(10L, 20L, 30L, 40L, 50L), List.of(), null, 21);
+    }
+
+    @Benchmark
+    public List<Long> allOfTwoCommonTagsMiddlePage() {
+        return index.query(List.of(0L, 1L), List.of(), List.of(), middleId, 21);
+    }
+
+    @Benchmark
+    public long countAllOfTwoCommonTags() {
+        return index.count(List.of(0L, 1L), List.of(), List.of());
+    }
+
+    // Incremental update of one post, which removes it from every tag's bitmap first
+    @Benchmark
+    public void setTags() {
+        index.setTags(middleId, List.of(0L, 7L, 99L));
+    }
+}
@@ -0,0 +1,75 @@
+package com.blog.service;
+
+import com.blog.benchmark.BenchmarkFixture;
+import com.blog.dto.AuthResponse;
+import com.blog.dto.RegisterRequest;
+import com.blog.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signup throughput. {@code register} is the current path: one BCrypt hash and one insert.
+ * {@code registerWithPreviousChecks} adds what registration used to do on top of that, two
+ * existence queries and an authentication that reloads the user and runs a second BCrypt
+ * verification, so the difference between the two scores is the saving.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class RegistrationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private UserRepository userRepository;
+    private AuthenticationManager authenticationManager;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixture.start("registration");
+        authService = context.getBean(AuthService.class);
+        userRepository = context.getBean(UserRepository.class);
+        authenticationManager = context.getBean(AuthenticationManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthResponse register() {
+        return authService.register(nextRequest());
+    }
+
+    @Benchmark
+    public Authentication registerWithPreviousChecks() {
+        RegisterRequest request = nextRequest();
+        userRepository.existsByUsername(request.getUsername());
+        userRepository.existsByEmail(request.getEmail());
+        authService.register(request);
+        return authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+    }
+
+    private RegisterRequest nextRequest() {
+        long n = sequence.incrementAndGet();
+        return new RegisterRequest("bench" + n, "bench" + n + "@example.com", "password123");
+    }
+}
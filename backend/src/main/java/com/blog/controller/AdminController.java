@@ -0,0 +1,175 @@
+package com.blog.controller;
+
+import com.blog.dto.CacheStatsDTO;
+import com.blog.dto.DataSourceStatsDTO;
+import com.blog.dto.SqlStatsDTO;
+import com.blog.dto.TagIndexStatsDTO;
+import com.blog.entity.User;
+import com.blog.monitoring.QueryStatistics;
+import com.blog.security.CustomUserDetailsService;
+import com.blog.security.UserTokenStateCache;
+import com.blog.service.PostCache;
+import com.blog.service.PostExportService;
+import com.blog.service.PostTagIndex;
+import com.blog.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private UserTokenStateCache userTokenStateCache;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostExportService postExportService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.export.retry-after}")
+    private Duration exportRetryAfter;
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        stats.add(postCache.stats());
+        stats.add(userTokenStateCache.stats());
+        stats.addAll(customUserDetailsService.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/datasource")
+    public ResponseEntity<?> getDataSourceStats() {
+        try {
+            return ResponseEntity.ok(DataSourceStatsDTO.of(dataSource.unwrap(HikariDataSource.class), virtualThreads));
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Connection pool statistics are not available"));
+        }
+    }
+
+    @GetMapping("/sql")
+    public ResponseEntity<SqlStatsDTO> getSqlStats(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(queryStatistics.snapshot(Math.max(0, limit)));
+    }
+
+    @DeleteMapping("/sql")
+    public ResponseEntity<Void> resetSqlStats() {
+        queryStatistics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/tag-index")
+    public ResponseEntity<TagIndexStatsDTO> getTagIndexStats() {
+        return ResponseEntity.ok(postTagIndex.stats());
+    }
+
+    // Reloads the tag index from post_tags, e.g. after tags were changed directly in the database
+    @PostMapping("/tag-index/rebuild")
+    public ResponseEntity<TagIndexStatsDTO> rebuildTagIndex() {
+        postTagIndex.rebuild();
+        return ResponseEntity.ok(postTagIndex.stats());
+    }
+
+    // Streams every post with full content as one JSON array; memory use does not grow with the number of posts
+    @GetMapping("/posts/export")
+    public ResponseEntity<?> exportPosts() {
+        if (!postExportService.tryStartExport()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(exportRetryAfter.toSeconds()))
+                    .body(new ErrorResponse("Too many exports in progress, please try again later"));
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                postExportService.writeAllPosts(out);
+            } finally {
+                postExportService.finishExport();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping("/users/{id}/disable")
+    public ResponseEntity<?> disableUser(@PathVariable @NonNull Long id) {
+        try {
+            userService.setEnabled(id, false);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/users/{id}/enable")
+    public ResponseEntity<?> enableUser(@PathVariable @NonNull Long id) {
+        try {
+            userService.setEnabled(id, true);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Also revokes the user's tokens, since they carry the old roles
+    @PutMapping("/users/{id}/roles")
+    public ResponseEntity<?> setRoles(@PathVariable @NonNull Long id, @RequestBody @NonNull Set<User.Role> roles) {
+        try {
+            userService.setRoles(id, roles);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@PathVariable @NonNull Long id) {
+        try {
+            userService.revokeTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    private record ErrorResponse(String message) {
+    }
+}
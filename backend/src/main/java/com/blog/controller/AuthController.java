@@ -3,9 +3,11 @@ package com.blog.controller;
 import com.blog.dto.AuthRequest;
 import com.blog.dto.AuthResponse;
 import com.blog.dto.RegisterRequest;
+import com.blog.security.PasswordHashingRejectedException;
 import com.blog.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(registerRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return serviceUnavailable(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
@@ -32,12 +36,20 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(authRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("Invalid username or password"));
         }
     }
 
+    private ResponseEntity<?> serviceUnavailable(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     private record ErrorResponse(String message) {
     }
 }
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,14 +21,20 @@ public class CategoryController {
     private CategoryService categoryService;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, categoryService.getAllCategoriesVersion())) {
+            return null;
+        }
         List<CategoryDTO> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable @NonNull Long id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable @NonNull Long id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, categoryService.getCategoryVersion(id))) {
+                return null;
+            }
             CategoryDTO category = categoryService.getCategoryById(id);
             return ResponseEntity.ok(category);
         } catch (RuntimeException e) {
@@ -0,0 +1,20 @@
+package com.blog.controller;
+
+import com.blog.dto.ResourceVersion;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Checks If-None-Match / If-Modified-Since against a {@link ResourceVersion} before the body is
+ * loaded. Either way the ETag and Last-Modified headers are written to the response; when the
+ * client's copy is current the status is already 304 and the handler returns {@code null}.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static boolean isNotModified(WebRequest request, ResourceVersion version) {
+        long lastModified = version.lastModified() == null ? -1 : version.lastModified().toEpochMilli();
+        return request.checkNotModified(version.etag(), lastModified);
+    }
+}
@@ -1,35 +1,104 @@
 package com.blog.controller;
 
+import com.blog.dto.CursorPage;
 import com.blog.dto.PostDTO;
+import com.blog.dto.PostFilter;
+import com.blog.dto.PostImportResultDTO;
+import com.blog.dto.PostPageIds;
 import com.blog.dto.PostRequest;
+import com.blog.dto.PostSearchHitDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.dto.SearchPage;
+import com.blog.service.PostImportService;
 import com.blog.service.PostService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostImportService postImportService;
+
     @GetMapping
-    public ResponseEntity<List<PostDTO>> getAllPosts() {
-        List<PostDTO> posts = postService.getAllPosts();
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<?> getAllPosts(@RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "20") int limit,
+                                         @RequestParam(required = false) Long authorId,
+                                         @RequestParam(required = false) Long categoryId,
+                                         @RequestParam(required = false) Long tagId,
+                                         WebRequest request) {
+        try {
+            PostFilter filter = new PostFilter(authorId, categoryId, tagId);
+            PostPageIds pageIds = postService.getPostsPage(filter, after, limit);
+            if (ConditionalGet.isNotModified(request, pageIds.version())) {
+                return null;
+            }
+            CursorPage<PostSummaryDTO> page = postService.getPosts(pageIds);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(@RequestParam String q,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            SearchPage<PostSearchHitDTO> results = postService.searchPosts(q, page, size);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Boolean tag filter: every tag in all, at least one in any, none in none (comma-separated names)
+    @GetMapping("/tagged")
+    public ResponseEntity<?> getPostsByTags(@RequestParam(required = false) List<String> all,
+                                            @RequestParam(required = false) List<String> any,
+                                            @RequestParam(required = false) List<String> none,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPage<PostSummaryDTO> page = postService.getPostsByTags(all, any, none, after, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPostById(@PathVariable @NonNull Long id) {
+    public ResponseEntity<?> getPostById(@PathVariable @NonNull Long id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, postService.getPostVersion(id))) {
+                return null;
+            }
             PostDTO post = postService.getPostById(id);
             return ResponseEntity.ok(post);
         } catch (RuntimeException e) {
@@ -49,6 +118,20 @@ public class PostController {
         }
     }
 
+    // Body is NDJSON, one post per line; invalid records are reported in the result, not rejected
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importPosts(InputStream body,
+                                         @AuthenticationPrincipal UserDetails currentUser) {
+        try {
+            PostImportResultDTO result = postImportService.importPosts(body, currentUser);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Could not read import body: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePost(@PathVariable @NonNull Long id,
                                         @Valid @RequestBody PostRequest postRequest,
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,14 +21,20 @@ public class TagController {
     private TagService tagService;
 
     @GetMapping
-    public ResponseEntity<List<TagDTO>> getAllTags() {
+    public ResponseEntity<List<TagDTO>> getAllTags(WebRequest request) {
+        if (ConditionalGet.isNotModified(request, tagService.getAllTagsVersion())) {
+            return null;
+        }
         List<TagDTO> tags = tagService.getAllTags();
         return ResponseEntity.ok(tags);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTagById(@PathVariable @NonNull Long id) {
+    public ResponseEntity<?> getTagById(@PathVariable @NonNull Long id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, tagService.getTagVersion(id))) {
+                return null;
+            }
             TagDTO tag = tagService.getTagById(id);
             return ResponseEntity.ok(tag);
         } catch (RuntimeException e) {
@@ -0,0 +1,12 @@
+package com.blog.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changes whenever a row is added, updated or removed: additions and updates move the latest
+ * updatedAt, removals change the count. The highest id catches a removal and an addition that
+ * land in the same clock tick, since new rows always get a higher id; unlike a sum of ids it
+ * cannot overflow.
+ */
+public record CollectionVersion(Long count, Long maxId, LocalDateTime lastModified) {
+}
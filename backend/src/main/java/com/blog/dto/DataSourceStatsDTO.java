@@ -0,0 +1,33 @@
+package com.blog.dto;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourceStatsDTO {
+    private String poolName;
+    private int maximumPoolSize;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    // Requests currently blocked waiting for a connection; sustained non-zero values mean the pool is the bottleneck
+    private int threadsAwaitingConnection;
+    private boolean virtualThreads;
+
+    public static DataSourceStatsDTO of(HikariDataSource dataSource, boolean virtualThreads) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new DataSourceStatsDTO(
+                dataSource.getPoolName(),
+                dataSource.getMaximumPoolSize(),
+                pool == null ? 0 : pool.getActiveConnections(),
+                pool == null ? 0 : pool.getIdleConnections(),
+                pool == null ? 0 : pool.getTotalConnections(),
+                pool == null ? 0 : pool.getThreadsAwaitingConnection(),
+                virtualThreads);
+    }
+}
@@ -0,0 +1,6 @@
+package com.blog.dto;
+
+import java.time.LocalDateTime;
+
+public record EntityVersion(Long id, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,18 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NPlusOneDTO {
+    // Statement executed repeatedly within a single request, typically once per row of an earlier result
+    private String sql;
+    private int executions;
+    private String request;
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,14 @@
+package com.blog.dto;
+
+/**
+ * Optional restrictions on the post listing. Each non-null id must match; an empty filter
+ * lists every post.
+ */
+public record PostFilter(Long authorId, Long categoryId, Long tagId) {
+
+    public static final PostFilter NONE = new PostFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return authorId == null && categoryId == null && tagId == null;
+    }
+}
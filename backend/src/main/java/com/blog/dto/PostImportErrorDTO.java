@@ -0,0 +1,14 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportErrorDTO {
+    // 1-based line of the record in the NDJSON body
+    private long line;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportResultDTO {
+    private int imported;
+    private int failed;
+    // At most PostImportService.MAX_REPORTED_ERRORS entries; failed holds the full count
+    private List<PostImportErrorDTO> errors;
+}
@@ -0,0 +1,10 @@
+package com.blog.dto;
+
+import java.util.List;
+
+/**
+ * The ids of one page of posts and its validators, so a conditional GET can be answered and the
+ * page then loaded without running the id query twice.
+ */
+public record PostPageIds(List<Long> ids, boolean hasMore, ResourceVersion version) {
+}
@@ -23,5 +23,8 @@ public class PostRequest {
     private Long categoryId;
     
     private Set<Long> tagIds;
+
+    // Tags referenced by name are created if they do not exist yet
+    private Set<@NotBlank @Size(min = 2, max = 50, message = "Tag names must be between 2 and 50 characters") String> tagNames;
 }
 
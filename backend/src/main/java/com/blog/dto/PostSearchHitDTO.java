@@ -0,0 +1,20 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchHitDTO {
+    private Long id;
+    private String title;
+    // Fragment of the post body with matched terms wrapped in <mark> tags
+    private String snippet;
+    private double rank;
+    private String authorUsername;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.blog.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List view of a post: everything a post card shows, but an excerpt instead of the full content.
+ */
+@Data
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private Long authorId;
+    private String authorUsername;
+    private Long categoryId;
+    private String categoryName;
+    private List<String> tagNames = new ArrayList<>();
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Used by the constructor expression in PostRepository; tag names are filled in afterwards
+    public PostSummaryDTO(Long id, String title, String excerpt, Long authorId, String authorUsername,
+                          Long categoryId, String categoryName, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorId = authorId;
+        this.authorUsername = authorUsername;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.blog.dto;
+
+// Projection of one (post, tag name) pair
+public interface PostTagName {
+    Long getPostId();
+    String getName();
+}
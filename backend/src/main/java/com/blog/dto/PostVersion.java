@@ -0,0 +1,20 @@
+package com.blog.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Everything a post's representation depends on besides its own columns: its category and the
+ * number and latest change of its tags.
+ */
+public record PostVersion(Long id, LocalDateTime updatedAt, Long categoryId, LocalDateTime categoryUpdatedAt,
+                          Long tagCount, LocalDateTime tagsUpdatedAt) {
+
+    public LocalDateTime lastModified() {
+        return Stream.of(updatedAt, categoryUpdatedAt, tagsUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.blog.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validators for a conditional GET: a strong ETag and the Last-Modified time. Both are derived
+ * from the metadata a representation depends on, never from the serialized body, so they can be
+ * checked before anything is loaded.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    // lastModified is null for an empty collection
+    public static ResourceVersion of(LocalDateTime lastModified, Object... parts) {
+        String key = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        String etag = "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new ResourceVersion(etag,
+                lastModified == null ? null : lastModified.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
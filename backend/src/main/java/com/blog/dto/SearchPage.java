@@ -0,0 +1,17 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage<T> {
+    private List<T> results;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
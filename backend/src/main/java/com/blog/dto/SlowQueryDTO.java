@@ -0,0 +1,18 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryDTO {
+    private String sql;
+    private long durationMillis;
+    // Request the query ran in, or null outside a request
+    private String request;
+    private LocalDateTime executedAt;
+}
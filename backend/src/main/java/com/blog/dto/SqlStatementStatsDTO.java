@@ -0,0 +1,18 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementStatsDTO {
+    private String sql;
+    private long executions;
+    private long errors;
+    private long rows;
+    private long totalMillis;
+    private double meanMillis;
+    private long maxMillis;
+}
@@ -0,0 +1,21 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatsDTO {
+    private long totalQueries;
+    private long totalRows;
+    private int distinctStatements;
+    // Most expensive statements first, by total execution time
+    private List<SqlStatementStatsDTO> statements;
+    // Newest first
+    private List<SlowQueryDTO> slowQueries;
+    private List<NPlusOneDTO> nPlusOne;
+}
@@ -0,0 +1,30 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagIndexStatsDTO {
+    private int tags;
+    // Distinct posts with at least one tag
+    private long posts;
+    // Post-tag pairs
+    private long entries;
+    private long sizeInBytes;
+    private double bytesPerEntry;
+    // sizeInBytes scaled to one million tagged posts at the current tags per post
+    private long bytesPerMillionPosts;
+
+    public static TagIndexStatsDTO of(int tags, long posts, long entries, long sizeInBytes) {
+        return new TagIndexStatsDTO(
+                tags,
+                posts,
+                entries,
+                sizeInBytes,
+                entries == 0 ? 0 : (double) sizeInBytes / entries,
+                posts == 0 ? 0 : Math.round(sizeInBytes * (1_000_000.0 / posts)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.blog.dto;
+
+/**
+ * The parts of a user that decide whether previously issued tokens are still honoured.
+ */
+public record UserTokenState(boolean enabled, int tokenVersion) {
+
+    // Cached for ids that no longer exist so that their tokens keep being rejected cheaply
+    public static final UserTokenState MISSING = new UserTokenState(false, -1);
+
+    public boolean accepts(int tokenVersion) {
+        return enabled && this.tokenVersion == tokenVersion;
+    }
+}
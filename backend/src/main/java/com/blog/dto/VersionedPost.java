@@ -0,0 +1,8 @@
+package com.blog.dto;
+
+/**
+ * A cached post together with its conditional GET validators, computed from the same entities
+ * when it was loaded, so a cache hit answers If-None-Match without a metadata query.
+ */
+public record VersionedPost(PostDTO post, ResourceVersion version) {
+}
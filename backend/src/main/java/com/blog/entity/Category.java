@@ -4,23 +4,27 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "categories")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @NotBlank
@@ -42,15 +46,35 @@ public class Category {
     @ToString.Exclude
     private Set<Post> posts = new HashSet<>();
 
+    // Truncated to the column precision, as in Post, so the version of a cached post built from
+    // these entities matches the one read back from the database
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Id-based and proxy-safe, see EntityIdentity. Final so a lazy proxy runs this code and
+    // reads the id through its getter.
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!EntityIdentity.sameClass(this, o)) {
+            return false;
+        }
+        Long id = getId();
+        return id != null && id.equals(((Category) o).getId());
     }
-}
 
+    @Override
+    public final int hashCode() {
+        return EntityIdentity.hashCode(this);
+    }
+}
@@ -0,0 +1,34 @@
+package com.blog.entity;
+
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Shared rules for entity {@code equals} and {@code hashCode}: two instances are equal when they
+ * are of the same entity class and have the same non-null id, and the hash depends on the class
+ * only. Neither looks at any other field, so comparing or hashing an entity never touches its
+ * associations and costs the same however large they are.
+ * <p>
+ * The hash cannot use the id because the id is assigned on persist, which would move an entity
+ * already held in a hash set. Entities are therefore only kept in small sets (a post's tags);
+ * large inverse collections such as {@code Tag.posts} are queried, not loaded.
+ */
+final class EntityIdentity {
+
+    private EntityIdentity() {
+    }
+
+    // The real entity class, also for an uninitialized lazy proxy, without initializing it
+    static Class<?> effectiveClass(Object entity) {
+        return entity instanceof HibernateProxy proxy
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : entity.getClass();
+    }
+
+    static boolean sameClass(Object entity, Object other) {
+        return other != null && effectiveClass(entity) == effectiveClass(other);
+    }
+
+    static int hashCode(Object entity) {
+        return effectiveClass(entity).hashCode();
+    }
+}
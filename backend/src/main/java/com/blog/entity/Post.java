@@ -4,23 +4,30 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import org.springframework.web.util.HtmlUtils;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "posts")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post {
 
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @NotBlank
@@ -32,6 +39,11 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Plain-text start of the content, kept in sync on every write so that list pages never
+    // have to read the TEXT column
+    @Column(length = 300)
+    private String excerpt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     @ToString.Exclude
@@ -57,15 +69,52 @@ public class Post {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Timestamps are truncated to the column precision so that keyset cursors built from
+    // a freshly saved entity compare equal to the stored value
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
+        excerpt = excerptOf(content);
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        excerpt = excerptOf(content);
+    }
+
+    // Strips markup and cuts at a word boundary; the result fits the excerpt column
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = HtmlUtils.htmlUnescape(content.replaceAll("<[^>]*>", " "))
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, end > 0 ? end : EXCERPT_LENGTH).trim() + "...";
     }
-}
 
+    // Id-based and proxy-safe, see EntityIdentity. Final so a lazy proxy runs this code and
+    // reads the id through its getter.
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!EntityIdentity.sameClass(this, o)) {
+            return false;
+        }
+        Long id = getId();
+        return id != null && id.equals(((Post) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return EntityIdentity.hashCode(this);
+    }
+}
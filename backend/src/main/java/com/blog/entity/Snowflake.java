@@ -0,0 +1,101 @@
+package com.blog.entity;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocates time-ordered 53-bit ids without touching the database: 41 bits of milliseconds since
+ * 2025-01-01 (enough until 2094), 5 bits of node id and 7 bits of sequence. Ids fit a JavaScript
+ * number, so the frontend can keep treating them as numbers.
+ * <p>
+ * Ids from one node strictly increase. When a millisecond's 128 ids are used up, or the clock
+ * steps back, allocation continues from the next millisecond after the last id rather than
+ * waiting, so the embedded time can run ahead of the clock during bursts, but never by more than
+ * {@link #MAX_LEAD_MILLIS}; past that, allocation waits for the clock. A new allocator starts
+ * just beyond that lead, so a restarted node cannot reissue ids its previous process handed out
+ * ahead of the clock. Different nodes never collide as long as each runs with its own
+ * {@code app.id.node}.
+ */
+public final class Snowflake {
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final long MAX_LEAD_MILLIS = 1000;
+
+    // One allocator per node in the process, shared by Hibernate and the JDBC bulk writers
+    private static final ConcurrentMap<Integer, Snowflake> NODES = new ConcurrentHashMap<>();
+
+    private final int node;
+    // Timestamp and sequence of the last id, packed as they appear in the id
+    private final AtomicLong last;
+    private final LongSupplier clock;
+
+    private Snowflake(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    Snowflake(int node, LongSupplier clock) {
+        this.node = node;
+        this.clock = clock;
+        // As if the last id were the final one of the latest millisecond an earlier process could
+        // have reached, so the first id comes after everything it issued
+        long start = clock.getAsLong() - EPOCH_MILLIS + MAX_LEAD_MILLIS;
+        this.last = new AtomicLong((start << SEQUENCE_BITS) | SEQUENCE_MASK);
+    }
+
+    public static Snowflake forNode(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Id node must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        return NODES.computeIfAbsent(node, Snowflake::new);
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long previousTime = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousTime) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                next = (previousTime + 1) << SEQUENCE_BITS;
+            }
+            if ((next >>> SEQUENCE_BITS) > MAX_TIMESTAMP) {
+                throw new IllegalStateException("Id timestamp range exhausted");
+            }
+            if ((next >>> SEQUENCE_BITS) > now + MAX_LEAD_MILLIS) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            if (last.compareAndSet(previous, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | ((long) node << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * The allocation time embedded in an id. Ids from before the switch to this generator were
+     * plain sequence numbers and map to instants before the epoch.
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.blog.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. The node comes from the {@code app.id.node} Hibernate
+ * setting, which application.properties passes through from the Spring property of the same name.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    static final String NODE_SETTING = "app.id.node";
+
+    private final Snowflake snowflake;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member idMember, CustomIdGeneratorCreationContext context) {
+        Object node = context.getServiceRegistry().getService(ConfigurationService.class)
+                .getSettings().get(NODE_SETTING);
+        snowflake = Snowflake.forNode(node == null ? 0 : Integer.parseInt(node.toString().trim()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return snowflake.nextId();
+    }
+}
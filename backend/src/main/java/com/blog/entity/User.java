@@ -1,13 +1,16 @@
 package com.blog.entity;
 
+import com.blog.event.UserChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -15,13 +18,16 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
-@Data
+@EntityListeners(UserChangeListener.class)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @NotBlank
@@ -45,6 +51,15 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Set<Role> roles = new HashSet<>();
 
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    // Incremented to invalidate every token issued to this user so far
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -69,6 +84,25 @@ public class User {
         updatedAt = LocalDateTime.now();
     }
 
+    // Id-based and proxy-safe, see EntityIdentity. Final so a lazy proxy runs this code and
+    // reads the id through its getter.
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!EntityIdentity.sameClass(this, o)) {
+            return false;
+        }
+        Long id = getId();
+        return id != null && id.equals(((User) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return EntityIdentity.hashCode(this);
+    }
+
     public enum Role {
         ROLE_USER,
         ROLE_ADMIN
@@ -0,0 +1,29 @@
+package com.blog.event;
+
+import com.blog.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns every write to a {@link User} into a {@link UserChangedEvent},
+ * so registration, password and status changes invalidate caches without each caller having to
+ * remember to do so. A change to the roles collection alone does not update the users row and
+ * fires nothing; {@code UserService.setRoles} bumps the token version for that reason.
+ */
+@Component
+public class UserChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserWritten(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+    }
+}
@@ -0,0 +1,8 @@
+package com.blog.event;
+
+/**
+ * Published whenever a user row is inserted, updated or deleted, from any code path.
+ * Caches of authentication state listen for it to drop their entries for the user.
+ */
+public record UserChangedEvent(Long userId, String username) {
+}
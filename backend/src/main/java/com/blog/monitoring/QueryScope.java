@@ -0,0 +1,107 @@
+package com.blog.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements the current thread executes between {@link #open} and {@link #close}.
+ * Scopes nest: closing an inner scope adds its counts to the enclosing one. Statements are keyed
+ * by their normalized SQL, so the same query with different bind values counts as one statement.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final String label;
+    private final QueryScope parent;
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private final Map<String, Integer> selects = new LinkedHashMap<>();
+    private int queryCount;
+    private long rowCount;
+    private long elapsedMillis;
+    private boolean closed;
+
+    private QueryScope(String label, QueryScope parent) {
+        this.label = label;
+        this.parent = parent;
+    }
+
+    public static QueryScope open(String label) {
+        QueryScope scope = new QueryScope(label, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    void recordQuery(String sql, boolean select, long millis) {
+        queryCount++;
+        elapsedMillis += millis;
+        executions.merge(sql, 1, Integer::sum);
+        if (select) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rowCount++;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Map<String, Integer> getExecutions() {
+        return Collections.unmodifiableMap(executions);
+    }
+
+    /**
+     * SELECT statements executed at least {@code threshold} times in this scope, the usual shape
+     * of an N+1 problem.
+     */
+    public Map<String, Integer> getRepeatedSelects(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        selects.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Query scopes must be closed in the reverse order they were opened");
+        }
+        closed = true;
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        CURRENT.set(parent);
+        parent.queryCount += queryCount;
+        parent.rowCount += rowCount;
+        parent.elapsedMillis += elapsedMillis;
+        executions.forEach((sql, count) -> parent.executions.merge(sql, count, Integer::sum));
+        selects.forEach((sql, count) -> parent.selects.merge(sql, count, Integer::sum));
+    }
+}
@@ -0,0 +1,281 @@
+package com.blog.monitoring;
+
+import com.blog.dto.NPlusOneDTO;
+import com.blog.dto.SlowQueryDTO;
+import com.blog.dto.SqlStatementStatsDTO;
+import com.blog.dto.SqlStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Receives every statement executed through the proxied DataSource, JPA and JdbcTemplate alike.
+ * Keeps per-statement aggregates and samples of slow queries and likely N+1 patterns for the
+ * admin endpoint, and publishes the {@code blog.sql.*} meters.
+ * <p>
+ * Execution time is measured by the proxy around {@code execute}; reading the result set is not
+ * included. Rows are attributed to the last statement the thread executed, and only counted
+ * when {@code app.sql.statistics.count-rows} is on.
+ */
+@Component
+public class QueryStatistics implements QueryExecutionListener, MethodExecutionListener, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+    // Distinct statements tracked individually; anything beyond is pooled so the map stays bounded
+    static final int MAX_STATEMENTS = 500;
+    static final String OTHER_STATEMENTS = "(other statements)";
+    private static final int MAX_SAMPLES = 50;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // IN lists and VALUES tuples of any length collapse to one form
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+    private static final Pattern REPEATED_TUPLES = Pattern.compile("\\(\\?\\)(?:, ?\\(\\?\\))+");
+
+    @Value("${app.sql.slow-query-threshold}")
+    private Duration slowQueryThreshold;
+
+    @Value("${app.sql.n-plus-one-threshold}")
+    private int nPlusOneThreshold;
+
+    @Value("${app.sql.statistics.count-rows}")
+    private boolean countRows;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final LongAdder totalQueries = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final ThreadLocal<StatementStats> lastStatement = new ThreadLocal<>();
+
+    // Newest first; guarded by their own monitors
+    private final Deque<SlowQueryDTO> slowQueries = new ArrayDeque<>();
+    private final Deque<NPlusOneDTO> nPlusOneSamples = new ArrayDeque<>();
+
+    // Set once the registry binds this component; statements executed before that are not metered
+    private volatile MeterRegistry meterRegistry;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("blog.sql.queries", totalQueries, LongAdder::sum)
+                .description("Statements executed")
+                .register(registry);
+        if (countRows) {
+            FunctionCounter.builder("blog.sql.rows", totalRows, LongAdder::sum)
+                    .description("Rows read from result sets")
+                    .register(registry);
+        }
+        meterRegistry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = normalize(queryInfoList);
+        long millis = execInfo.getElapsedTime();
+        boolean select = isSelect(sql);
+
+        StatementStats stats = statementStats(sql);
+        stats.record(millis, execInfo.isSuccess());
+        lastStatement.set(stats);
+        totalQueries.increment();
+
+        QueryScope scope = QueryScope.current();
+        if (scope != null) {
+            scope.recordQuery(sql, select, millis);
+        }
+
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Timer.builder("blog.sql.query")
+                    .description("Statement execution time")
+                    .tag("type", statementType(sql))
+                    .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                    .register(registry)
+                    .record(millis, TimeUnit.MILLISECONDS);
+        }
+
+        if (millis >= slowQueryThreshold.toMillis()) {
+            String request = scope == null ? null : scope.getLabel();
+            logger.warn("Slow query ({} ms{}): {}", millis, request == null ? "" : ", " + request, sql);
+            addSample(slowQueries, new SlowQueryDTO(sql, millis, request, LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            totalRows.increment();
+            StatementStats stats = lastStatement.get();
+            if (stats != null) {
+                stats.rows.increment();
+            }
+            QueryScope scope = QueryScope.current();
+            if (scope != null) {
+                scope.recordRow();
+            }
+        }
+    }
+
+    /**
+     * Publishes the query count of a finished request and reports SELECTs it repeated often enough
+     * to look like an N+1 problem.
+     */
+    public void recordRequest(QueryScope scope, String method, String uri) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            DistributionSummary.builder("blog.sql.request.queries")
+                    .description("Statements executed per request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(scope.getQueryCount());
+        }
+
+        scope.getRepeatedSelects(nPlusOneThreshold).forEach((sql, count) -> {
+            logger.warn("Possible N+1 query in {}: {} executions of {}", scope.getLabel(), count, sql);
+            addSample(nPlusOneSamples, new NPlusOneDTO(sql, count, scope.getLabel(), LocalDateTime.now()));
+            if (registry != null) {
+                Counter.builder("blog.sql.n-plus-one")
+                        .description("Requests that repeated a SELECT at least the N+1 threshold number of times")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(registry)
+                        .increment();
+            }
+        });
+    }
+
+    public SqlStatsDTO snapshot(int limit) {
+        List<SqlStatementStatsDTO> top = statements.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparingLong(SqlStatementStatsDTO::getTotalMillis).reversed()
+                        .thenComparing(Comparator.comparingLong(SqlStatementStatsDTO::getExecutions).reversed()))
+                .limit(limit)
+                .collect(Collectors.toList());
+        return new SqlStatsDTO(totalQueries.sum(), totalRows.sum(), statements.size(), top,
+                samples(slowQueries), samples(nPlusOneSamples));
+    }
+
+    /**
+     * Clears the aggregates and samples behind the admin endpoint. Micrometer meters are cumulative
+     * and are not reset.
+     */
+    public void reset() {
+        statements.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        synchronized (nPlusOneSamples) {
+            nPlusOneSamples.clear();
+        }
+    }
+
+    private StatementStats statementStats(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statements.size() < MAX_STATEMENTS ? sql : OTHER_STATEMENTS;
+        return statements.computeIfAbsent(key, k -> new StatementStats());
+    }
+
+    static String normalize(List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        sql = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        sql = PLACEHOLDER_LIST.matcher(sql).replaceAll("(?)");
+        return REPEATED_TUPLES.matcher(sql).replaceAll("(?)");
+    }
+
+    private static boolean isSelect(String sql) {
+        return "select".equals(statementType(sql));
+    }
+
+    private static String statementType(String sql) {
+        int end = sql.indexOf(' ');
+        String keyword = (end < 0 ? sql : sql.substring(0, end)).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private static <T> void addSample(Deque<T> samples, T sample) {
+        synchronized (samples) {
+            samples.addFirst(sample);
+            if (samples.size() > MAX_SAMPLES) {
+                samples.removeLast();
+            }
+        }
+    }
+
+    private static <T> List<T> samples(Deque<T> samples) {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    static final class StatementStats {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+        void record(long millis, boolean success) {
+            executions.increment();
+            if (!success) {
+                errors.increment();
+            }
+            totalMillis.add(millis);
+            maxMillis.accumulate(millis);
+        }
+
+        SqlStatementStatsDTO toDTO(String sql) {
+            long count = executions.sum();
+            long total = totalMillis.sum();
+            return new SqlStatementStatsDTO(sql, count, errors.sum(), rows.sum(), total,
+                    count == 0 ? 0 : (double) total / count, maxMillis.get());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.blog.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource so every statement, whether issued by Hibernate or by
+ * JdbcTemplate, is reported to {@link QueryStatistics}. The wrapper unwraps to the pool, so
+ * Hikari metrics and {@code unwrap(HikariDataSource.class)} keep working.
+ * <p>
+ * Counting rows means proxying every result set and intercepting each of its calls, which costs
+ * far more than timing statements, so it is off unless {@code app.sql.statistics.count-rows} is set.
+ */
+@Component
+public class QueryStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+    // Looked up lazily: post-processors are created before ordinary beans such as the meter registry
+    @Autowired
+    private ObjectProvider<QueryStatistics> queryStatistics;
+
+    @Value("${app.sql.statistics.enabled}")
+    private boolean enabled;
+
+    @Value("${app.sql.statistics.count-rows}")
+    private boolean countRows;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        QueryStatistics listener = queryStatistics.getObject();
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(listener);
+        if (countRows) {
+            builder.proxyResultSet().methodListener(listener);
+        }
+        return builder.build();
+    }
+}
@@ -1,7 +1,11 @@
 package com.blog.repository;
 
+import com.blog.dto.CollectionVersion;
+import com.blog.dto.EntityVersion;
 import com.blog.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +14,10 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     boolean existsByName(String name);
-}
 
+    @Query("SELECT new com.blog.dto.EntityVersion(c.id, c.updatedAt) FROM Category c WHERE c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.blog.dto.CollectionVersion(COUNT(c), MAX(c.id), MAX(c.updatedAt)) FROM Category c")
+    CollectionVersion findCollectionVersion();
+}
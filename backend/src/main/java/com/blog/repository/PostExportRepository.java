@@ -0,0 +1,104 @@
+package com.blog.repository;
+
+import com.blog.dto.PostDTO;
+import com.blog.dto.TagDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads every post through a forward-only cursor, handing out one chunk of fully assembled posts
+ * at a time, so memory use depends on the chunk size rather than on the number of posts.
+ * <p>
+ * PostgreSQL only streams with a fetch size inside a transaction (autocommit off), so callers
+ * must run {@link #forEachChunk} in one.
+ */
+@Repository
+public class PostExportRepository {
+
+    private static final String SELECT_POSTS = """
+            SELECT p.id, p.title, p.content, p.author_id, u.username, p.category_id, c.name AS category_name,
+                   p.created_at, p.updated_at
+            FROM posts p
+            JOIN users u ON u.id = p.author_id
+            LEFT JOIN categories c ON c.id = p.category_id
+            ORDER BY p.id
+            """;
+
+    private static final String SELECT_TAGS = """
+            SELECT pt.post_id, t.id, t.name, t.created_at, t.updated_at
+            FROM post_tags pt
+            JOIN tags t ON t.id = pt.tag_id
+            WHERE pt.post_id IN (:ids)
+            """;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public void forEachChunk(int chunkSize, Consumer<List<PostDTO>> consumer) {
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(chunkSize);
+
+        List<PostDTO> chunk = new ArrayList<>(chunkSize);
+        cursor.query(SELECT_POSTS, rs -> {
+            chunk.add(mapPost(rs));
+            if (chunk.size() == chunkSize) {
+                emit(chunk, consumer);
+            }
+        });
+        if (!chunk.isEmpty()) {
+            emit(chunk, consumer);
+        }
+    }
+
+    // Tags for the whole chunk come from one IN query on the same connection
+    private void emit(List<PostDTO> chunk, Consumer<List<PostDTO>> consumer) {
+        Map<Long, PostDTO> postsById = new HashMap<>();
+        chunk.forEach(post -> postsById.put(post.getId(), post));
+        namedJdbcTemplate.query(SELECT_TAGS, new MapSqlParameterSource("ids", postsById.keySet()), rs -> {
+            postsById.get(rs.getLong("post_id")).getTags().add(new TagDTO(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    toLocalDateTime(rs.getTimestamp("created_at")),
+                    toLocalDateTime(rs.getTimestamp("updated_at"))));
+        });
+        consumer.accept(chunk);
+        chunk.clear();
+    }
+
+    private static PostDTO mapPost(ResultSet rs) throws SQLException {
+        PostDTO post = new PostDTO();
+        post.setId(rs.getLong("id"));
+        post.setTitle(rs.getString("title"));
+        post.setContent(rs.getString("content"));
+        post.setAuthorId(rs.getLong("author_id"));
+        post.setAuthorUsername(rs.getString("username"));
+        post.setCategoryId(rs.getObject("category_id", Long.class));
+        post.setCategoryName(rs.getString("category_name"));
+        post.setTags(new HashSet<>());
+        post.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        post.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return post;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,91 @@
+package com.blog.repository;
+
+import com.blog.entity.Post;
+import com.blog.entity.Snowflake;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes imported posts and their tag links as JDBC batches, bypassing the persistence context
+ * so large imports neither hold every entity in memory nor pay for dirty checking at flush.
+ */
+@Repository
+public class PostImportRepository {
+
+    private static final String INSERT_POST = "INSERT INTO posts (id, title, content, excerpt, author_id, category_id, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_POST_TAG = "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.id.node}")
+    private int idNode;
+
+    private Snowflake snowflake;
+
+    @PostConstruct
+    void init() {
+        snowflake = Snowflake.forNode(idNode);
+    }
+
+    // Assigns ids from the same allocator as the entities, then inserts the posts in one batch
+    public void insertPosts(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        for (Post post : posts) {
+            post.setId(snowflake.nextId());
+        }
+        jdbcTemplate.batchUpdate(INSERT_POST, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Post post = posts.get(i);
+                ps.setLong(1, post.getId());
+                ps.setString(2, post.getTitle());
+                ps.setString(3, post.getContent());
+                // Entity callbacks do not run for JDBC inserts
+                ps.setString(4, Post.excerptOf(post.getContent()));
+                ps.setLong(5, post.getAuthor().getId());
+                if (post.getCategory() != null) {
+                    ps.setLong(6, post.getCategory().getId());
+                } else {
+                    ps.setNull(6, Types.BIGINT);
+                }
+                ps.setTimestamp(7, Timestamp.valueOf(post.getCreatedAt()));
+                ps.setTimestamp(8, Timestamp.valueOf(post.getUpdatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return posts.size();
+            }
+        });
+    }
+
+    public void insertPostTags(Map<Long, ? extends Collection<Long>> tagIdsByPostId) {
+        List<Object[]> links = new ArrayList<>();
+        tagIdsByPostId.forEach((postId, tagIds) -> {
+            for (Long tagId : tagIds) {
+                links.add(new Object[] {postId, tagId});
+            }
+        });
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_POST_TAG, links);
+        }
+    }
+}
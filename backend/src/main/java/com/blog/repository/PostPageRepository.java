@@ -0,0 +1,57 @@
+package com.blog.repository;
+
+import com.blog.dto.PostCursor;
+import com.blog.dto.PostFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Keyset pages of post ids restricted by author, category and/or tag, ordered by (created_at, id)
+ * descending like the unfiltered listing in {@link PostRepository}.
+ * <p>
+ * The statement is assembled from the filters actually given, so each combination gets its own
+ * plan instead of one with {@code :x IS NULL OR ...} branches that no index can serve. Author and
+ * category pages walk {@code (author_id, created_at, id)} and {@code (category_id, created_at, id)}
+ * from the cursor and stop after {@code limit} rows. A tag page reads the tag's rows in
+ * {@code (tag_id, post_id)} and sorts them, so its cost grows with the number of posts carrying
+ * the tag rather than with the page size.
+ */
+@Repository
+public class PostPageRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // after is null for the first page
+    public List<Long> findPageIds(PostFilter filter, PostCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT p.id FROM posts p");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+
+        if (filter.tagId() != null) {
+            sql.append(" JOIN post_tags pt ON pt.post_id = p.id AND pt.tag_id = :tagId");
+            params.addValue("tagId", filter.tagId());
+        }
+        sql.append(" WHERE 1 = 1");
+        if (filter.authorId() != null) {
+            sql.append(" AND p.author_id = :authorId");
+            params.addValue("authorId", filter.authorId());
+        }
+        if (filter.categoryId() != null) {
+            sql.append(" AND p.category_id = :categoryId");
+            params.addValue("categoryId", filter.categoryId());
+        }
+        if (after != null) {
+            // Row comparison so PostgreSQL can start the index scan at the cursor
+            sql.append(" AND (p.created_at, p.id) < (:createdAt, :id)");
+            params.addValue("createdAt", after.createdAt());
+            params.addValue("id", after.id());
+        }
+        sql.append(" ORDER BY p.created_at DESC, p.id DESC LIMIT :limit");
+
+        return jdbcTemplate.queryForList(sql.toString(), params, Long.class);
+    }
+}
@@ -1,13 +1,19 @@
 package com.blog.repository;
 
+import com.blog.dto.PostSummaryDTO;
+import com.blog.dto.PostTagName;
+import com.blog.dto.PostVersion;
 import com.blog.entity.Post;
 import com.blog.entity.User;
 import com.blog.entity.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,17 +22,49 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByCategory(Category category);
     List<Post> findByAuthorId(Long authorId);
     List<Post> findByCategoryId(Long categoryId);
+    boolean existsByCategoryId(Long categoryId);
     
     @Query("SELECT p FROM Post p JOIN p.tags t WHERE t.id = :tagId")
     List<Post> findByTagId(@Param("tagId") Long tagId);
+
+    @Query("SELECT p.id FROM Post p JOIN p.tags t WHERE t.id = :tagId")
+    List<Long> findIdsByTagId(@Param("tagId") Long tagId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
     
-    @Query("SELECT p FROM Post p WHERE p.title LIKE %:keyword% OR p.content LIKE %:keyword%")
-    List<Post> searchByKeyword(@Param("keyword") String keyword);
-    
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category")
+    // The author's EAGER roles are fetched too; otherwise each distinct author costs another select
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.author a LEFT JOIN FETCH a.roles " +
+           "LEFT JOIN FETCH p.category")
     List<Post> findAllWithRelations();
     
-    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category WHERE p.id = :id")
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.author a LEFT JOIN FETCH a.roles " +
+           "LEFT JOIN FETCH p.category WHERE p.id = :id")
     java.util.Optional<Post> findByIdWithRelations(@Param("id") Long id);
-}
 
+    // Keyset pages ordered by (createdAt, id) descending. Only ids are selected so the limit is
+    // applied by the database; the page is then filled in with the IN queries below.
+    @Query("SELECT p.id FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFirstPageIds(Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPageIdsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // List pages never select posts.content; tag names are loaded separately for the same ids
+    @Query("SELECT new com.blog.dto.PostSummaryDTO(p.id, p.title, p.excerpt, a.id, a.username, c.id, c.name, " +
+           "p.createdAt, p.updatedAt) FROM Post p JOIN p.author a LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<PostSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS postId, t.name AS name FROM Post p JOIN p.tags t WHERE p.id IN :ids ORDER BY t.name")
+    List<PostTagName> findTagNamesByPostIdIn(@Param("ids") Collection<Long> ids);
+
+    // Metadata for conditional GETs; reads no content and no tag or category names
+    @Query("SELECT new com.blog.dto.PostVersion(p.id, p.updatedAt, c.id, c.updatedAt, COUNT(t), MAX(t.updatedAt)) " +
+           "FROM Post p LEFT JOIN p.category c LEFT JOIN p.tags t WHERE p.id IN :ids " +
+           "GROUP BY p.id, p.updatedAt, c.id, c.updatedAt")
+    List<PostVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+}
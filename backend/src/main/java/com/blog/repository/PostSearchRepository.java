@@ -0,0 +1,202 @@
+package com.blog.repository;
+
+import com.blog.dto.PostSearchHitDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search over post titles and bodies.
+ * <p>
+ * On PostgreSQL this runs against a GIN index over a weighted {@code tsvector} expression, created
+ * by a schema migration. The index is maintained by the database itself, so every insert, update
+ * and delete is searchable immediately. Other databases (the H2 test profile) fall back to a LIKE scan ranked in memory.
+ */
+@Repository
+public class PostSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchRepository.class);
+
+    // Must stay identical to the expression indexed by migration V2, otherwise PostgreSQL cannot use the index
+    static final String DOCUMENT = "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+            + "setweight(to_tsvector('english', coalesce(content, '')), 'B')";
+
+    private static final String POSTGRES_SEARCH = """
+            SELECT r.id, r.title, r.username, r.created_at, r.rank,
+                   ts_headline('english', regexp_replace(r.content, '<[^>]*>|[\\x02\\x03]', ' ', 'g'), r.query,
+                               :headlineOptions) AS snippet
+            FROM (
+                SELECT p.id, p.title, p.content, u.username, p.created_at, q.query,
+                       ts_rank(%1$s, q.query) AS rank
+                FROM posts p
+                JOIN users u ON u.id = p.author_id
+                CROSS JOIN websearch_to_tsquery('english', :q) AS q(query)
+                WHERE %1$s @@ q.query
+                ORDER BY rank DESC, p.id DESC
+                LIMIT :limit OFFSET :offset
+            ) r
+            ORDER BY r.rank DESC, r.id DESC
+            """.formatted(DOCUMENT);
+
+    // ts_headline marks matches with these instead of <mark>, so the fragment can be HTML-escaped
+    // first and only the markers turned into tags afterwards. Stray ones in content are blanked.
+    private static final String START_SEL = "\u0002";
+    private static final String STOP_SEL = "\u0003";
+    private static final String HEADLINE_OPTIONS = "StartSel=" + START_SEL + ", StopSel=" + STOP_SEL
+            + ", MaxFragments=2, MaxWords=30, MinWords=10";
+
+    private static final int MAX_TERMS = 10;
+    private static final int SNIPPET_BEFORE = 60;
+    private static final int SNIPPET_AFTER = 140;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void detectDatabase() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not detect database product, using LIKE search fallback", e);
+            postgres = false;
+        }
+    }
+
+    public List<PostSearchHitDTO> search(String query, int limit, long offset) {
+        if (postgres) {
+            return searchWithTextIndex(query, limit, offset);
+        }
+        return searchWithLike(query, limit, offset);
+    }
+
+    private List<PostSearchHitDTO> searchWithTextIndex(String query, int limit, long offset) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+        return jdbcTemplate.query(POSTGRES_SEARCH, params, (rs, rowNum) -> new PostSearchHitDTO(
+                rs.getLong("id"),
+                rs.getString("title"),
+                markHeadline(rs.getString("snippet")),
+                rs.getDouble("rank"),
+                rs.getString("username"),
+                rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    // Every term must appear in the title or body; ranking and paging happen in memory
+    private List<PostSearchHitDTO> searchWithLike(String query, int limit, long offset) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.id, p.title, p.content, u.username, p.created_at FROM posts p "
+                        + "JOIN users u ON u.id = p.author_id WHERE ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append("(LOWER(p.title) LIKE :t").append(i).append(" ESCAPE '\\' OR LOWER(p.content) LIKE :t")
+                    .append(i).append(" ESCAPE '\\')");
+            params.addValue("t" + i, "%" + escapeLike(terms.get(i)) + "%");
+        }
+
+        Pattern highlight = Pattern.compile(terms.stream().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE);
+        List<PostSearchHitDTO> hits = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            String title = rs.getString("title");
+            String text = stripTags(rs.getString("content"));
+            return new PostSearchHitDTO(
+                    rs.getLong("id"),
+                    title,
+                    snippet(text, highlight),
+                    2.0 * countMatches(title, highlight) + countMatches(text, highlight),
+                    rs.getString("username"),
+                    rs.getTimestamp("created_at").toLocalDateTime());
+        });
+
+        return hits.stream()
+                .sorted(Comparator.comparingDouble(PostSearchHitDTO::getRank).reversed()
+                        .thenComparing(PostSearchHitDTO::getId, Comparator.reverseOrder()))
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!term.isEmpty() && !terms.contains(term) && terms.size() < MAX_TERMS) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Also drops the match markers, as the PostgreSQL query does before ts_headline
+    private static String stripTags(String html) {
+        return html.replaceAll("<[^>]*>|[\\x02\\x03]", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    // Same format as the fallback's snippets: tag-free text, HTML-escaped, matches in <mark>
+    static String markHeadline(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        String text = headline.replaceAll("\\s+", " ").trim();
+        return HtmlUtils.htmlEscape(text).replace(START_SEL, "<mark>").replace(STOP_SEL, "</mark>");
+    }
+
+    private static int countMatches(String text, Pattern pattern) {
+        int count = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    // Matches are found in the raw text and marked only after escaping, so a term such as "amp"
+    // cannot land inside an entity the escaping produced
+    static String snippet(String text, Pattern highlight) {
+        Matcher first = highlight.matcher(text);
+        int start = 0;
+        int end = Math.min(text.length(), SNIPPET_BEFORE + SNIPPET_AFTER);
+        if (first.find()) {
+            start = Math.max(0, first.start() - SNIPPET_BEFORE);
+            end = Math.min(text.length(), first.start() + SNIPPET_AFTER);
+        }
+        String fragment = text.substring(start, end);
+        return markHeadline(highlight.matcher(fragment).replaceAll(START_SEL + "$0" + STOP_SEL));
+    }
+}
@@ -1,14 +1,26 @@
 package com.blog.repository;
 
+import com.blog.dto.CollectionVersion;
+import com.blog.dto.EntityVersion;
 import com.blog.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
     boolean existsByName(String name);
-}
+    List<Tag> findByNameIn(Collection<String> names);
+
+    @Query("SELECT new com.blog.dto.EntityVersion(t.id, t.updatedAt) FROM Tag t WHERE t.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 
+    @Query("SELECT new com.blog.dto.CollectionVersion(COUNT(t), MAX(t.id), MAX(t.updatedAt)) FROM Tag t")
+    CollectionVersion findCollectionVersion();
+}
@@ -0,0 +1,94 @@
+package com.blog.repository;
+
+import com.blog.entity.Snowflake;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates any missing tags from a set of names with one multi-row statement. Names that already
+ * exist, including ones inserted concurrently by another transaction, are left untouched.
+ */
+@Repository
+public class TagUpsertRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagUpsertRepository.class);
+
+    private static final String ROW = "(CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.id.node}")
+    private int idNode;
+
+    private Snowflake snowflake;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void init() {
+        snowflake = Snowflake.forNode(idNode);
+        detectDatabase();
+    }
+
+    private void detectDatabase() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not detect database product, using MERGE for tag upserts", e);
+            postgres = false;
+        }
+    }
+
+    public void insertMissing(Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        String sql = postgres ? postgresInsert(names.size()) : mergeInsert(names.size());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        List<Object> args = new ArrayList<>(names.size() * 3);
+        for (String name : names) {
+            // Names that already exist leave their id unused
+            args.add(snowflake.nextId());
+            args.add(name);
+            args.add(now);
+        }
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    private static String postgresInsert(int rows) {
+        return "INSERT INTO tags (id, name, created_at, updated_at) SELECT v.id, v.name, v.ts, v.ts FROM (VALUES "
+                + String.join(", ", Collections.nCopies(rows, ROW))
+                + ") AS v(id, name, ts) ON CONFLICT (name) DO NOTHING";
+    }
+
+    // Standard SQL MERGE for databases without ON CONFLICT (the H2 test profile)
+    private static String mergeInsert(int rows) {
+        return "MERGE INTO tags t USING (VALUES "
+                + String.join(", ", Collections.nCopies(rows, ROW))
+                + ") AS v(id, name, ts) ON t.name = v.name "
+                + "WHEN NOT MATCHED THEN INSERT (id, name, created_at, updated_at) VALUES (v.id, v.name, v.ts, v.ts)";
+    }
+}
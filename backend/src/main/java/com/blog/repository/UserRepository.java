@@ -1,16 +1,26 @@
 package com.blog.repository;
 
+import com.blog.dto.UserTokenState;
 import com.blog.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Joins the EAGER roles collection instead of loading it with a second select
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Single-row lookup that skips the EAGER roles collection
+    @Query("SELECT new com.blog.dto.UserTokenState(u.enabled, u.tokenVersion) FROM User u WHERE u.id = :id")
+    Optional<UserTokenState> findTokenStateById(@Param("id") Long id);
 }
 
@@ -1,36 +1,113 @@
 package com.blog.security;
 
+import com.blog.dto.CacheStatsDTO;
 import com.blog.entity.User;
+import com.blog.event.UserChangedEvent;
 import com.blog.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Loads users for authentication through bounded, expiring caches keyed by id and by username.
+ * Entries are dropped whenever a {@link UserChangedEvent} is published for the user. Both caches
+ * are published as {@code cache.*} metrics under their names.
+ */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, MeterBinder {
+
+    public static final String BY_ID_CACHE = "users-by-id";
+    public static final String BY_USERNAME_CACHE = "users-by-username";
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.security.user-cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${app.security.user-cache.ttl}")
+    private Duration ttl;
+
+    private UserStateCache<Long, UserPrincipal> usersById;
+    private UserStateCache<String, UserPrincipal> usersByUsername;
+    // Loads run in a read-only transaction only on a cache miss
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        usersById = new UserStateCache<>(maximumSize, ttl);
+        usersByUsername = new UserStateCache<>(maximumSize, ttl);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        usersById.bindTo(registry, BY_ID_CACHE);
+        usersByUsername.bindTo(registry, BY_USERNAME_CACHE);
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return usersByUsername.get(username, key -> readOnlyTransaction.execute(status -> {
+            User user = userRepository.findByUsername(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + key));
 
-        return UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        }));
     }
 
-    @Transactional
     public UserDetails loadUserById(@NonNull Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return usersById.get(id, key -> readOnlyTransaction.execute(status -> {
+            User user = userRepository.findById(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + key));
 
-        return UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        }));
+    }
+
+    // Evicts now and again after commit so the committed state is what gets cached next
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(event);
+                }
+            });
+        }
     }
-}
 
+    private void evict(UserChangedEvent event) {
+        if (event.userId() != null) {
+            usersById.invalidate(event.userId());
+        }
+        if (event.username() != null) {
+            usersByUsername.invalidate(event.username());
+        }
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(usersById.stats(BY_ID_CACHE), usersByUsername.stats(BY_USERNAME_CACHE));
+    }
+}
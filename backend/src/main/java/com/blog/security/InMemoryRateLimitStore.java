@@ -0,0 +1,101 @@
+package com.blog.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets in process memory, one per rule and key. A bucket starts full with
+ * {@code limit} permits and refills continuously at {@code limit} per {@code period}, so bursts
+ * up to the limit are allowed and the long-run rate is capped. Each bucket is updated with a
+ * compare-and-set loop, without locks.
+ * <p>
+ * A bucket is evicted by a background scheduler once it has been idle for its rule's period, or
+ * {@code app.rate-limit.idle-timeout} if that is longer. By then it has refilled completely, so
+ * eviction never hands a client permits it would not have had anyway.
+ * <p>
+ * The number of buckets is bounded, so requests from many addresses cannot grow memory without
+ * limit. Past the bound a bucket can be evicted early, which resets it. Caffeine's frequency-based
+ * admission mostly keeps the active buckets and drops the one-off keys of a client rotating
+ * addresses, but {@code app.rate-limit.maximum-keys} should still comfortably exceed the number
+ * of clients active within the longest period.
+ */
+@Component
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    @Value("${app.rate-limit.idle-timeout}")
+    private Duration idleTimeout;
+
+    @Value("${app.rate-limit.maximum-keys}")
+    private long maximumKeys;
+
+    private Cache<String, BucketState> buckets;
+
+    private record Bucket(double tokens, long updatedNanos) {
+    }
+
+    private record BucketState(AtomicReference<Bucket> bucket, long keepNanos) {
+    }
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, BucketState>() {
+                    @Override
+                    public long expireAfterCreate(@NonNull String key, @NonNull BucketState state, long currentTime) {
+                        return state.keepNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(@NonNull String key, @NonNull BucketState state, long currentTime,
+                                                  long currentDuration) {
+                        return state.keepNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(@NonNull String key, @NonNull BucketState state, long currentTime,
+                                                long currentDuration) {
+                        return state.keepNanos();
+                    }
+                })
+                .maximumSize(maximumKeys)
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        long now = System.nanoTime();
+        double capacity = rule.limit();
+        double tokensPerNano = capacity / rule.period().toNanos();
+        // Kept at least until a full refill, so an evicted bucket is never fuller than it would have been
+        long keepNanos = Math.max(idleTimeout.toNanos(), rule.period().toNanos());
+        AtomicReference<Bucket> state = buckets.get(key,
+                k -> new BucketState(new AtomicReference<>(new Bucket(capacity, now)), keepNanos)).bucket();
+
+        while (true) {
+            Bucket current = state.get();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.updatedNanos()) * tokensPerNano);
+            if (tokens < 1) {
+                long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                return new RateLimitDecision(false, Duration.ofNanos(waitNanos));
+            }
+            // Another request may have taken a permit meanwhile; retry with its result
+            if (state.compareAndSet(current, new Bucket(tokens - 1, Math.max(now, current.updatedNanos())))) {
+                return RateLimitDecision.ALLOWED;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
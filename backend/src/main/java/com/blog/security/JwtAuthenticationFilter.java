@@ -1,5 +1,6 @@
 package com.blog.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,16 +14,22 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.util.Optional;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final UserTokenStateCache tokenStateCache;
+    // When set, the principal is rebuilt from the token claims instead of loaded from the database
+    private final boolean statelessPrincipal;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService,
+                                   UserTokenStateCache tokenStateCache, boolean statelessPrincipal) {
         this.tokenProvider = tokenProvider;
         this.customUserDetailsService = customUserDetailsService;
+        this.tokenStateCache = tokenStateCache;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -31,10 +38,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = Objects.requireNonNull(tokenProvider.getUserIdFromToken(jwt));
+            // Verified once; the claims are reused instead of parsing the token again
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt) : Optional.empty();
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (claims.isPresent() && !isRevoked(claims.get())) {
+                UserDetails userDetails = statelessPrincipal
+                        ? UserPrincipal.fromClaims(claims.get())
+                        : customUserDetailsService.loadUserById(Long.parseLong(claims.get().getSubject()));
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -48,6 +58,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Rejects tokens of disabled users and tokens older than the user's current token version
+    private boolean isRevoked(Claims claims) {
+        return tokenStateCache.isRevoked(Long.parseLong(claims.getSubject()), JwtTokenProvider.getTokenVersion(claims));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
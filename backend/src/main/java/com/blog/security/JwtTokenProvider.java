@@ -2,6 +2,7 @@ package com.blog.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -9,71 +10,137 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String USERNAME_CLAIM = "username";
+    public static final String AUTHORITIES_CLAIM = "authorities";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    // Key id written to the header of newly issued tokens
+    @Value("${jwt.key-id:primary}")
+    private String keyId;
+
+    // Retired keys still accepted for verification, as comma-separated kid:secret pairs
+    @Value("${jwt.previous-secrets:}")
+    private String previousSecrets;
+
+    // Keys and parser are immutable and thread-safe, so they are built once rather than per call
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        for (String entry : previousSecrets.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.previous-secrets entries must have the form kid:secret");
+            }
+            keys.putIfAbsent(entry.substring(0, separator).trim(),
+                    Keys.hmacShaKeyFor(entry.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8)));
+        }
+        verificationKeys = Map.copyOf(keys);
+
+        parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .build();
+    }
+
+    // Tokens issued before key ids were introduced have no kid and are checked against the current key
+    private Key locateKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
     }
 
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateToken((UserPrincipal) authentication.getPrincipal(), authentication.getAuthorities());
+    }
+
+    // For a user that was just created or loaded, without going through an AuthenticationManager
+    public String generateToken(UserPrincipal userPrincipal) {
+        return generateToken(userPrincipal, userPrincipal.getAuthorities());
+    }
+
+    private String generateToken(UserPrincipal userPrincipal, Collection<? extends GrantedAuthority> grantedAuthorities) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        String authorities = authentication.getAuthorities().stream()
+        String authorities = grantedAuthorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .subject(Long.toString(userPrincipal.getId()))
-                .claim("username", userPrincipal.getUsername())
-                .claim("authorities", authorities)
+                .claim(USERNAME_CLAIM, userPrincipal.getUsername())
+                .claim(AUTHORITIES_CLAIM, authorities)
+                .claim(TOKEN_VERSION_CLAIM, userPrincipal.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of a token exactly once and returns its claims,
+     * or an empty result when the token is invalid.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        try {
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
         return Long.parseLong(claims.getSubject());
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
-        return claims.get("username", String.class);
+        return claims.get(USERNAME_CLAIM, String.class);
+    }
+
+    // Tokens issued before versioning was introduced carry no version and count as version 0
+    public static int getTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseClaims(authToken).isPresent();
     }
 }
-
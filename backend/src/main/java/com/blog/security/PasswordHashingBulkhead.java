@@ -0,0 +1,182 @@
+package com.blog.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing (BCrypt in login and registration) on a small dedicated pool instead of
+ * the request thread. The pool is sized to a CPU budget, so a burst of logins uses at most that
+ * many cores and request threads stay free for reads. Work beyond the bounded queue, or work
+ * that waits longer than the timeout, is rejected with {@link PasswordHashingRejectedException}.
+ */
+@Component
+public class PasswordHashingBulkhead implements MeterBinder {
+
+    // 0 means half of the available processors
+    @Value("${app.security.password-hashing.threads}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.security.password-hashing.timeout}")
+    private Duration timeout;
+
+    @Value("${app.security.password-hashing.retry-after}")
+    private Duration retryAfter;
+
+    private ThreadPoolExecutor executor;
+
+    // Set once the registry binds this component, as in QueryStatistics
+    private volatile MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        if (threads < 0 || queueCapacity < 1) {
+            throw new IllegalStateException(
+                    "app.security.password-hashing.threads must be at least 0 and queue-capacity at least 1");
+        }
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("blog.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("blog.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(registry);
+        Gauge.builder("blog.password.hash.threads", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .description("Size of the password hashing pool")
+                .register(registry);
+        meterRegistry = registry;
+    }
+
+    public PasswordEncoder wrap(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return run("encode", () -> delegate.encode(rawPassword));
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+            }
+
+            // Only inspects the stored hash, no hashing work
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return delegate.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    /**
+     * Runs the task on the hashing pool and waits for its result on the calling thread.
+     */
+    public <T> T run(String operation, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                record("blog.password.hash.wait", "Time a password hash waited for a hashing thread",
+                        operation, started - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    record("blog.password.hash", "Password hashing time", operation, System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject(operation, "queue-full");
+        }
+
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject(operation, "timeout");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw reject(operation, "interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private PasswordHashingRejectedException reject(String operation, String reason) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Counter.builder("blog.password.hash.rejected")
+                    .description("Password hashes rejected because the hashing pool was saturated")
+                    .tag("operation", operation)
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment();
+        }
+        return new PasswordHashingRejectedException(retryAfter);
+    }
+
+    private void record(String name, String description, String operation, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Timer.builder(name)
+                    .description(description)
+                    .tag("operation", operation)
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
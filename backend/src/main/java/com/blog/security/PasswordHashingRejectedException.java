@@ -0,0 +1,21 @@
+package com.blog.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the password hashing pool is saturated: its queue is full, or a queued hash did not
+ * finish within the configured timeout. Controllers answer with 503 and a Retry-After header.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingRejectedException(Duration retryAfter) {
+        super("Too many sign-in requests, please retry shortly");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
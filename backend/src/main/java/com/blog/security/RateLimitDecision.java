@@ -0,0 +1,12 @@
+package com.blog.security;
+
+import java.time.Duration;
+
+/**
+ * Outcome of taking one permit from a rate limit bucket. {@code retryAfter} is how long until
+ * the next permit is available, zero when the request was allowed.
+ */
+public record RateLimitDecision(boolean allowed, Duration retryAfter) {
+
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, Duration.ZERO);
+}
@@ -0,0 +1,62 @@
+package com.blog.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Answers requests over their rate limit with 429 and {@code Retry-After} before they reach a
+ * controller. Runs after {@link JwtAuthenticationFilter}, so per-user rules see the user id.
+ * Rules match the decoded path within the application, the one controllers are routed on, so a
+ * percent-encoded spelling of a path is limited like the plain one.
+ * <p>
+ * The client IP is the remote address. Behind a reverse proxy, enable
+ * {@code server.forward-headers-strategy} so it reflects the client rather than the proxy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BODY = "{\"message\":\"Too many requests, please try again later\"}";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitDecision decision = rateLimiter.check(request.getMethod(), UrlPathHelper.defaultInstance.getPathWithinApplication(request),
+                request.getRemoteAddr(), currentUserId());
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Whole seconds, rounded up so a client retrying on time is not rejected again
+        long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BODY);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.blog.security;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One entry of {@code app.rate-limit.rules}: requests matching the methods and path pattern may
+ * be made {@code limit} times per {@code period} per key. The key is the client IP, or the
+ * authenticated user id (falling back to the IP for anonymous requests).
+ * <p>
+ * Rules are written as {@code METHODS PATTERN LIMIT/PERIOD KEY}, separated by commas, e.g.
+ * {@code POST /api/auth/** 20/1m ip, POST|PUT|DELETE /api/** 120/1m user}. {@code *} matches any
+ * method. The first matching rule applies.
+ */
+public record RateLimitRule(String name, Set<String> methods, String pattern, long limit, Duration period, Key key) {
+
+    public enum Key {
+        IP,
+        USER
+    }
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    public boolean matches(String method, String path) {
+        return (methods.isEmpty() || methods.contains(method)) && PATH_MATCHER.match(pattern, path);
+    }
+
+    public static List<RateLimitRule> parse(String rules) {
+        List<RateLimitRule> parsed = new ArrayList<>();
+        for (String rule : rules.split(",")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            String[] parts = rule.trim().split("\\s+");
+            String[] rate = parts.length == 4 ? parts[2].split("/") : new String[0];
+            if (rate.length != 2) {
+                throw new IllegalStateException("Rate limit rules must have the form 'METHODS PATTERN LIMIT/PERIOD ip|user': " + rule.trim());
+            }
+            Set<String> methods = "*".equals(parts[0]) ? Set.of()
+                    : Arrays.stream(parts[0].split("\\|"))
+                            .map(method -> method.toUpperCase(Locale.ROOT))
+                            .collect(Collectors.toUnmodifiableSet());
+            long limit = Long.parseLong(rate[0]);
+            Duration period = DurationStyle.detectAndParse(rate[1]);
+            if (limit < 1 || period.isZero() || period.isNegative()) {
+                throw new IllegalStateException("Rate limit and period must be positive: " + rule.trim());
+            }
+            Key key = Key.valueOf(parts[3].toUpperCase(Locale.ROOT));
+            parsed.add(new RateLimitRule(parts[0] + " " + parts[1], methods, parts[1], limit, period, key));
+        }
+        return List.copyOf(parsed);
+    }
+}
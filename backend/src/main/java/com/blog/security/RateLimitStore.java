@@ -0,0 +1,15 @@
+package com.blog.security;
+
+/**
+ * Holds the rate limit buckets. {@link InMemoryRateLimitStore} keeps them per instance; an
+ * implementation backed by a shared store (e.g. Redis) would make the limits apply across
+ * instances by replacing that bean.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one permit for {@code key} from a bucket that allows {@code rule.limit()} requests
+     * per {@code rule.period()}.
+     */
+    RateLimitDecision tryAcquire(String key, RateLimitRule rule);
+}
@@ -0,0 +1,79 @@
+package com.blog.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies the first {@code app.rate-limit.rules} entry matching a request to the bucket of its
+ * client IP or user id in the {@link RateLimitStore}. Requests no rule matches are not limited.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+    @Autowired
+    private RateLimitStore store;
+
+    @Value("${app.rate-limit.rules}")
+    private String rules;
+
+    private List<RateLimitRule> parsedRules;
+
+    // Set once the registry binds this component, as in QueryStatistics
+    private volatile MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        parsedRules = RateLimitRule.parse(rules);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        meterRegistry = registry;
+    }
+
+    /**
+     * Takes a permit for the request, keyed by {@code userId} for per-user rules when the request
+     * is authenticated and by {@code clientIp} otherwise.
+     */
+    public RateLimitDecision check(String method, String path, String clientIp, Long userId) {
+        for (int i = 0; i < parsedRules.size(); i++) {
+            RateLimitRule rule = parsedRules.get(i);
+            if (!rule.matches(method, path)) {
+                continue;
+            }
+            // The rule index keeps the buckets of different rules apart
+            String key = rule.key() == RateLimitRule.Key.USER && userId != null
+                    ? i + ":u:" + userId
+                    : i + ":ip:" + clientIp;
+            RateLimitDecision decision = store.tryAcquire(key, rule);
+            if (!decision.allowed()) {
+                recordRejection(rule);
+            }
+            return decision;
+        }
+        return RateLimitDecision.ALLOWED;
+    }
+
+    public List<RateLimitRule> getRules() {
+        return parsedRules;
+    }
+
+    private void recordRejection(RateLimitRule rule) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Counter.builder("blog.rate-limit.rejected")
+                    .description("Requests answered with 429 by the rate limiter")
+                    .tag("rule", rule.name())
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.blog.security;
 
+import com.blog.controller.PostController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -33,17 +36,34 @@ public class SecurityConfig {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private UserTokenStateCache userTokenStateCache;
+
+    @Autowired
+    private PasswordHashingBulkhead passwordHashingBulkhead;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.security.stateless-principal}")
+    private boolean statelessPrincipal;
+
+    @Value("${app.rate-limit.enabled}")
+    private boolean rateLimitEnabled;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider, customUserDetailsService);
+        return new JwtAuthenticationFilter(jwtTokenProvider, customUserDetailsService,
+                userTokenStateCache, statelessPrincipal);
     }
 
+    // BCrypt runs on the hashing pool rather than the request thread
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return passwordHashingBulkhead.wrap(new BCryptPasswordEncoder());
     }
 
     @Bean
@@ -67,11 +87,17 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Only matches on the management port, which is bound to localhost
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                         .anyRequest().authenticated()
                 );
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            // Not a bean, so it is registered in the security chain only and not as a servlet filter too
+            http.addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
+        }
 
         return http.build();
     }
@@ -96,7 +122,8 @@ public class SecurityConfig {
             "Access-Control-Request-Headers"
         ));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", PostController.NEXT_CURSOR_HEADER,
+                HttpHeaders.RETRY_AFTER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,13 +1,16 @@
 package com.blog.security;
 
 import com.blog.entity.User;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Data
@@ -18,6 +21,8 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled;
+    private int tokenVersion;
 
     public static UserPrincipal create(User user) {
         Collection<GrantedAuthority> authorities = user.getRoles().stream()
@@ -29,7 +34,32 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                user.isEnabled(),
+                user.getTokenVersion()
+        );
+    }
+
+    /**
+     * Rebuilds a principal from verified token claims without touching the database.
+     * Email and password are not part of the token and stay null.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        String authorityClaim = claims.get(JwtTokenProvider.AUTHORITIES_CLAIM, String.class);
+        Collection<GrantedAuthority> authorities = authorityClaim == null ? List.of()
+                : Arrays.stream(authorityClaim.split(","))
+                        .filter(authority -> !authority.isBlank())
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+
+        return new UserPrincipal(
+                Long.parseLong(claims.getSubject()),
+                claims.get(JwtTokenProvider.USERNAME_CLAIM, String.class),
+                null,
+                null,
+                authorities,
+                true,
+                JwtTokenProvider.getTokenVersion(claims)
         );
     }
 
@@ -48,9 +78,5 @@ public class UserPrincipal implements UserDetails {
         return true;
     }
 
-    @Override
-    public boolean isEnabled() {
-        return true;
-    }
 }
 
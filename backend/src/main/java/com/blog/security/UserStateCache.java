@@ -0,0 +1,84 @@
+package com.blog.security;
+
+import com.blog.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring cache of per-user state whose loader runs outside Caffeine's per-key lock.
+ * Loading a user can auto-flush a pending change to that user, which publishes a
+ * UserChangedEvent that evicts from this very cache; inside {@code Cache.get(key, loader)} that
+ * eviction would be a recursive update. Load times are recorded by hand so they still show up
+ * in the cache statistics and metrics.
+ * <p>
+ * Because the load is not under the key's lock, an invalidation can land while a load that read
+ * the old state is still running. Each key hashes to a generation counter that invalidation
+ * bumps; a load whose generation changed does not leave its value behind, so a disable or token
+ * revocation cannot be undone by a read that raced it.
+ */
+final class UserStateCache<K, V> {
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final ConcurrentStatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final Cache<K, V> cache;
+    // Striped rather than per key so the counters stay bounded; a collision only costs a reload
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    UserStateCache(long maximumSize, Duration ttl) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats(() -> statsCounter)
+                .build();
+    }
+
+    V get(K key, Function<K, V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        long start = System.nanoTime();
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - start);
+            throw e;
+        }
+        statsCounter.recordLoadSuccess(System.nanoTime() - start);
+        cache.put(key, value);
+        // Checked after the put: an invalidation before it is caught here, one after it removes the value itself
+        if (generations.get(stripe) != generation) {
+            cache.invalidate(key);
+        }
+        return value;
+    }
+
+    void invalidate(K key) {
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    CacheStatsDTO stats(String name) {
+        return CacheStatsDTO.of(name, cache);
+    }
+}
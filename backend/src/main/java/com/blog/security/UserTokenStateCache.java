@@ -0,0 +1,76 @@
+package com.blog.security;
+
+import com.blog.dto.CacheStatsDTO;
+import com.blog.dto.UserTokenState;
+import com.blog.repository.UserRepository;
+import com.blog.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of each user's enabled flag and token version, used to reject revoked
+ * tokens without a database round-trip on every request. Changes made on this node take effect
+ * immediately; changes made elsewhere are seen once the entry expires. Published as
+ * {@code cache.*} metrics tagged {@code cache=user-token-state}.
+ */
+@Component
+public class UserTokenStateCache implements MeterBinder {
+
+    public static final String NAME = "user-token-state";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.token-state.maximum-size}")
+    private long maximumSize;
+
+    @Value("${app.security.token-state.ttl}")
+    private Duration ttl;
+
+    private UserStateCache<Long, UserTokenState> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new UserStateCache<>(maximumSize, ttl);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        cache.bindTo(registry, NAME);
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        UserTokenState state = cache.get(userId, id -> userRepository.findTokenStateById(id)
+                .orElse(UserTokenState.MISSING));
+        return !state.accepts(tokenVersion);
+    }
+
+    // Evicts now and again after commit so the committed state is what gets cached next
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Long userId = event.userId();
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        return cache.stats(NAME);
+    }
+}
@@ -6,21 +6,27 @@ import com.blog.dto.RegisterRequest;
 import com.blog.entity.User;
 import com.blog.repository.UserRepository;
 import com.blog.security.JwtTokenProvider;
+import com.blog.security.PasswordHashingRejectedException;
 import com.blog.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("blog.service")
 public class AuthService {
 
     @Autowired
@@ -35,34 +41,28 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    @Transactional
+    // One INSERT and one BCrypt hash: uniqueness is left to the database constraints, and the
+    // token is issued from the saved user instead of authenticating the password just hashed.
+    // Not transactional: the hash may wait in the hashing queue, and must not hold a pooled
+    // connection meanwhile. saveAndFlush runs in a transaction of its own.
     public AuthResponse register(RegisterRequest registerRequest) {
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken!");
-        }
-
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email is already in use!");
-        }
-
         User user = new User();
         user.setUsername(registerRequest.getUsername());
         user.setEmail(registerRequest.getEmail());
         user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
 
-        user = userRepository.save(user);
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        registerRequest.getUsername(),
-                        registerRequest.getPassword()
-                )
-        );
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+        UserPrincipal userPrincipal = UserPrincipal.create(user);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                userPrincipal, null, userPrincipal.getAuthorities()));
+        String token = tokenProvider.generateToken(userPrincipal);
 
-        List<String> roles = authentication.getAuthorities().stream()
+        List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
@@ -76,13 +76,36 @@ public class AuthService {
         return authResponse;
     }
 
+    // Both databases name the violated constraint in the driver message
+    private static RuntimeException duplicateUser(DataIntegrityViolationException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage())
+                .toLowerCase(Locale.ROOT);
+        if (message.contains("uk_users_username")) {
+            return new RuntimeException("Username is already taken!");
+        }
+        if (message.contains("uk_users_email")) {
+            return new RuntimeException("Email is already in use!");
+        }
+        return new RuntimeException("Could not register user", e);
+    }
+
     public AuthResponse login(AuthRequest authRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        authRequest.getUsername(),
-                        authRequest.getPassword()
-                )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            authRequest.getUsername(),
+                            authRequest.getPassword()
+                    )
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps failures while looking up the user, including the dummy hash it
+            // runs for unknown usernames
+            if (e.getCause() instanceof PasswordHashingRejectedException rejected) {
+                throw rejected;
+            }
+            throw e;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String token = tokenProvider.generateToken(authentication);
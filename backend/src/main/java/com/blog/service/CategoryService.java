@@ -2,8 +2,12 @@ package com.blog.service;
 
 import com.blog.dto.CategoryDTO;
 import com.blog.dto.CategoryRequest;
+import com.blog.dto.CollectionVersion;
+import com.blog.dto.EntityVersion;
+import com.blog.dto.ResourceVersion;
 import com.blog.entity.Category;
 import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -18,6 +22,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
     @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
         return categoryRepository.findAll().stream()
@@ -32,6 +42,20 @@ public class CategoryService {
         return convertToDTO(category);
     }
 
+    // Validators for conditional GETs, read without loading the category
+    @Transactional(readOnly = true)
+    public ResourceVersion getCategoryVersion(@NonNull Long id) {
+        EntityVersion version = categoryRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+        return ResourceVersion.of(version.updatedAt(), "category", version);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllCategoriesVersion() {
+        CollectionVersion version = categoryRepository.findCollectionVersion();
+        return ResourceVersion.of(version.lastModified(), "categories", version);
+    }
+
     @Transactional
     public CategoryDTO createCategory(CategoryRequest categoryRequest) {
         if (categoryRepository.existsByName(categoryRequest.getName())) {
@@ -57,10 +81,15 @@ public class CategoryService {
             throw new RuntimeException("Category with this name already exists");
         }
 
+        boolean renamed = !category.getName().equals(categoryRequest.getName());
         category.setName(categoryRequest.getName());
         category.setDescription(categoryRequest.getDescription());
 
         Category updatedCategory = categoryRepository.save(category);
+        if (renamed) {
+            // Cached posts embed the category name
+            postCache.evict(postRepository.findIdsByCategoryId(id));
+        }
         return convertToDTO(updatedCategory);
     }
 
@@ -69,8 +98,8 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
 
-        // Check if category has posts
-        if (!category.getPosts().isEmpty()) {
+        // An exists query rather than category.getPosts(), which would load every post of the category
+        if (postRepository.existsByCategoryId(id)) {
             throw new RuntimeException("Cannot delete category with existing posts");
         }
 
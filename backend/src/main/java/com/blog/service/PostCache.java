@@ -0,0 +1,92 @@
+package com.blog.service;
+
+import com.blog.dto.CacheStatsDTO;
+import com.blog.dto.VersionedPost;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fully assembled posts, with their validators, keyed by post id. Caffeine's W-TinyLFU policy keeps
+ * the hot posts resident while one-off reads of old posts do not displace them. Its statistics are
+ * published as the {@code cache.*} metrics tagged {@code cache=posts}.
+ */
+@Component
+public class PostCache implements MeterBinder {
+
+    public static final String NAME = "posts";
+
+    @Value("${app.cache.posts.maximum-size}")
+    private long maximumSize;
+
+    @Value("${app.cache.posts.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    private Cache<Long, VersionedPost> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    public VersionedPost get(Long id, Function<Long, VersionedPost> loader) {
+        return cache.get(id, loader);
+    }
+
+    public VersionedPost getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void evict(Long id) {
+        evict(List.of(id));
+    }
+
+    /**
+     * Evicts immediately and again once the surrounding transaction completes, so a concurrent
+     * reader cannot re-cache the pre-commit state in between.
+     */
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of(NAME, cache);
+    }
+}
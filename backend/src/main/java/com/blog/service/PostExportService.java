@@ -0,0 +1,108 @@
+package com.blog.service;
+
+import com.blog.dto.PostDTO;
+import com.blog.repository.PostExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes every post as one JSON array without holding the result set, the DTO list or the
+ * serialized document in memory: rows come from a cursor in chunks of
+ * {@code app.export.fetch-size} and each post is written to the stream as soon as it is built.
+ * <p>
+ * An export holds one pooled connection for as long as the client takes to read it. At most
+ * {@code app.export.max-concurrent} exports run at once, so slow clients can never pin more
+ * connections than that, and an export still running after {@code app.export.timeout} is
+ * aborted, which releases its connection. A client that stops reading altogether is cut off
+ * sooner by the servlet container's write timeout.
+ */
+@Service
+public class PostExportService {
+
+    @Autowired
+    private PostExportRepository postExportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.fetch-size}")
+    private int fetchSize;
+
+    @Value("${app.export.max-concurrent}")
+    private int maxConcurrent;
+
+    @Value("${app.export.timeout}")
+    private Duration timeout;
+
+    private TransactionTemplate readOnlyTransaction;
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        if (maxConcurrent < 1) {
+            throw new IllegalStateException("app.export.max-concurrent must be at least 1");
+        }
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Claims one of the concurrent export slots, or returns false when all are taken. Every
+     * successful call must be followed by {@link #finishExport()}.
+     */
+    public boolean tryStartExport() {
+        return slots.tryAcquire();
+    }
+
+    public void finishExport() {
+        slots.release();
+    }
+
+    public void writeAllPosts(OutputStream out) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            try {
+                readOnlyTransaction.executeWithoutResult(status ->
+                        postExportRepository.forEachChunk(fetchSize, chunk -> {
+                            for (PostDTO post : chunk) {
+                                // Ends the transaction, and with it the hold on the connection
+                                if (System.nanoTime() - deadline > 0) {
+                                    throw new RuntimeException("Export did not finish within " + timeout);
+                                }
+                                write(generator, post);
+                            }
+                        }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void write(JsonGenerator generator, PostDTO post) {
+        try {
+            generator.writeObject(post);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
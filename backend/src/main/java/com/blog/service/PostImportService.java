@@ -0,0 +1,294 @@
+package com.blog.service;
+
+import com.blog.dto.PostImportErrorDTO;
+import com.blog.dto.PostImportResultDTO;
+import com.blog.dto.PostRequest;
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostImportRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports posts from an NDJSON stream (one {@link PostRequest} object per line) on behalf of a
+ * single author. The body is read line by line, so memory use depends on the batch size rather
+ * than on the size of the upload. Each batch resolves its categories and tags with a fixed number
+ * of queries and is written with JDBC batch inserts in its own transaction.
+ * <p>
+ * Records that cannot be imported are reported by line number and never abort the load. Batches
+ * that were committed before a later failure stay committed.
+ */
+@Service
+public class PostImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private PostImportRepository postImportRepository;
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.batch-size}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("app.import.batch-size must be at least 1");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PostImportResultDTO importPosts(InputStream input, UserDetails currentUser) throws IOException {
+        User author = userRepository.findByUsername(currentUser.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        ImportProgress progress = new ImportProgress();
+        ObjectReader reader = objectMapper.readerFor(PostRequest.class);
+        List<ImportRecord> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                PostRequest request;
+                try {
+                    request = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    progress.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (request == null) {
+                    progress.fail(lineNumber, "Record must be a JSON object");
+                    continue;
+                }
+                String violations = validate(request);
+                if (violations != null) {
+                    progress.fail(lineNumber, violations);
+                    continue;
+                }
+
+                chunk.add(new ImportRecord(lineNumber, request));
+                if (chunk.size() == batchSize) {
+                    importChunk(author, chunk, progress);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(author, chunk, progress);
+        }
+        return progress.toResult();
+    }
+
+    private String validate(PostRequest request) {
+        Set<ConstraintViolation<PostRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Imports a chunk in one transaction. If the batch fails as a whole, each record is retried in
+    // its own transaction so that only the offending records are reported.
+    private void importChunk(User author, List<ImportRecord> chunk, ImportProgress progress) {
+        try {
+            List<PostImportErrorDTO> errors = transactionTemplate.execute(status -> insertChunk(author, chunk));
+            progress.complete(chunk.size(), Objects.requireNonNull(errors));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                progress.fail(chunk.get(0).line, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            for (ImportRecord record : chunk) {
+                importChunk(author, List.of(record), progress);
+            }
+        }
+    }
+
+    // Returns the records rejected for unknown categories or tags; all others are inserted
+    private List<PostImportErrorDTO> insertChunk(User author, List<ImportRecord> chunk) {
+        Set<Long> categoryIds = chunk.stream()
+                .map(record -> record.request.getCategoryId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        Set<Long> tagIds = chunk.stream()
+                .flatMap(record -> tagIdsOf(record.request).stream())
+                .collect(Collectors.toSet());
+        Set<Long> knownTagIds = tagRepository.findAllById(tagIds).stream()
+                .map(Tag::getId)
+                .collect(Collectors.toSet());
+
+        List<PostImportErrorDTO> errors = new ArrayList<>();
+        List<ImportRecord> accepted = new ArrayList<>(chunk.size());
+        Set<String> tagNames = new TreeSet<>();
+        for (ImportRecord record : chunk) {
+            Long categoryId = record.request.getCategoryId();
+            if (categoryId != null && !categories.containsKey(categoryId)) {
+                errors.add(new PostImportErrorDTO(record.line, "Category not found with id: " + categoryId));
+                continue;
+            }
+            List<Long> missingTagIds = tagIdsOf(record.request).stream()
+                    .filter(tagId -> !knownTagIds.contains(tagId))
+                    .sorted()
+                    .collect(Collectors.toList());
+            if (!missingTagIds.isEmpty()) {
+                errors.add(new PostImportErrorDTO(record.line, "Tags not found with ids: " + missingTagIds));
+                continue;
+            }
+            if (record.request.getTagNames() != null) {
+                try {
+                    record.tagNames = TagService.normalizeNames(record.request.getTagNames());
+                } catch (IllegalArgumentException e) {
+                    errors.add(new PostImportErrorDTO(record.line, e.getMessage()));
+                    continue;
+                }
+                tagNames.addAll(record.tagNames);
+            }
+            accepted.add(record);
+        }
+
+        Map<String, Long> tagIdsByName = tagService.findOrCreateByNames(tagNames).stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getId));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Post> posts = new ArrayList<>(accepted.size());
+        for (ImportRecord record : accepted) {
+            Post post = new Post();
+            post.setTitle(record.request.getTitle());
+            post.setContent(record.request.getContent());
+            post.setAuthor(author);
+            Long categoryId = record.request.getCategoryId();
+            if (categoryId != null) {
+                post.setCategory(categories.get(categoryId));
+            }
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            posts.add(post);
+        }
+        postImportRepository.insertPosts(posts);
+
+        Map<Long, Set<Long>> tagIdsByPostId = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportRecord record = accepted.get(i);
+            Set<Long> postTagIds = new HashSet<>(tagIdsOf(record.request));
+            record.tagNames.forEach(name -> postTagIds.add(tagIdsByName.get(name)));
+            tagIdsByPostId.put(posts.get(i).getId(), postTagIds);
+        }
+        postImportRepository.insertPostTags(tagIdsByPostId);
+        postTagIndex.addPosts(tagIdsByPostId);
+
+        return errors;
+    }
+
+    private static Set<Long> tagIdsOf(PostRequest request) {
+        if (request.getTagIds() == null) {
+            return Set.of();
+        }
+        return request.getTagIds().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static final class ImportRecord {
+        private final long line;
+        private final PostRequest request;
+        private Set<String> tagNames = Set.of();
+
+        private ImportRecord(long line, PostRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    private static final class ImportProgress {
+        private int imported;
+        private int failed;
+        private final List<PostImportErrorDTO> errors = new ArrayList<>();
+
+        void complete(int records, List<PostImportErrorDTO> rejected) {
+            imported += records - rejected.size();
+            rejected.forEach(error -> fail(error.getLine(), error.getMessage()));
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PostImportErrorDTO(line, message));
+            }
+        }
+
+        PostImportResultDTO toResult() {
+            return new PostImportResultDTO(imported, failed, errors);
+        }
+    }
+}
@@ -1,26 +1,50 @@
 package com.blog.service;
 
+import com.blog.dto.CursorPage;
+import com.blog.dto.PostCursor;
 import com.blog.dto.PostDTO;
+import com.blog.dto.PostFilter;
+import com.blog.dto.PostPageIds;
 import com.blog.dto.PostRequest;
+import com.blog.dto.PostSearchHitDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.dto.PostTagName;
+import com.blog.dto.PostVersion;
+import com.blog.dto.ResourceVersion;
+import com.blog.dto.SearchPage;
+import com.blog.dto.VersionedPost;
 import com.blog.entity.*;
+import com.blog.repository.PostPageRepository;
 import com.blog.repository.PostRepository;
-import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostSearchRepository;
 import com.blog.repository.TagRepository;
+import com.blog.repository.CategoryRepository;
 import com.blog.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("blog.service")
 public class PostService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -30,6 +54,21 @@ public class PostService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private PostPageRepository postPageRepository;
+
+    @Autowired
+    private PostSearchRepository postSearchRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
     @Autowired
     private TagRepository tagRepository;
 
@@ -40,11 +79,189 @@ public class PostService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPosts(String after, int limit) {
+        return getPosts(PostFilter.NONE, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPosts(PostFilter filter, String after, int limit) {
+        int pageSize = pageSize(limit);
+        List<Long> ids = findPageIds(filter, after, pageSize);
+
+        boolean hasMore = ids.size() > pageSize;
+        return loadPage(hasMore ? ids.subList(0, pageSize) : ids, hasMore);
+    }
+
+    // Loads a page whose ids were found by getPostsPage, for the conditional GET of the listing
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPosts(PostPageIds page) {
+        return loadPage(page.ids(), page.hasMore());
+    }
+
+    private CursorPage<PostSummaryDTO> loadPage(List<Long> pageIds, boolean hasMore) {
+        List<PostSummaryDTO> items = fetchSummaries(pageIds);
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            PostSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getPostsVersion(String after, int limit) {
+        return getPostsVersion(PostFilter.NONE, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getPostsVersion(PostFilter filter, String after, int limit) {
+        return getPostsPage(filter, after, limit).version();
+    }
+
+    // Ids and validators of the page getPosts would return, from the id query and one metadata query
+    @Transactional(readOnly = true)
+    public PostPageIds getPostsPage(PostFilter filter, String after, int limit) {
+        int pageSize = pageSize(limit);
+        List<Long> ids = findPageIds(filter, after, pageSize);
+
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = List.copyOf(hasMore ? ids.subList(0, pageSize) : ids);
+        List<PostVersion> versions = pageIds.isEmpty() ? List.of() : postRepository.findVersionsByIdIn(pageIds).stream()
+                .sorted(Comparator.comparing(PostVersion::id))
+                .collect(Collectors.toList());
+        LocalDateTime lastModified = versions.stream()
+                .map(PostVersion::lastModified)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        return new PostPageIds(pageIds, hasMore,
+                ResourceVersion.of(lastModified, "posts", filter, after, pageSize, hasMore, versions));
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Ids of the page, plus one extra to learn whether another page follows
+    private List<Long> findPageIds(PostFilter filter, String after, int pageSize) {
+        PostCursor cursor = after == null || after.isBlank() ? null : PostCursor.decode(after);
+        if (!filter.isEmpty()) {
+            return postPageRepository.findPageIds(filter, cursor, pageSize + 1);
+        }
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        if (cursor == null) {
+            return postRepository.findFirstPageIds(window);
+        }
+        return postRepository.findPageIdsAfter(cursor.createdAt(), cursor.id(), window);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<PostSearchHitDTO> searchPosts(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be at least 0 and size at least 1");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<PostSearchHitDTO> hits = postSearchRepository.search(query.trim(), pageSize + 1, (long) page * pageSize);
+
+        boolean hasMore = hits.size() > pageSize;
+        return new SearchPage<>(hasMore ? hits.subList(0, pageSize) : hits, page, pageSize, hasMore);
+    }
+
+    /**
+     * Posts carrying every tag in {@code all}, at least one in {@code any} (when given) and none
+     * in {@code none}, newest first. The boolean expression is answered by {@link PostTagIndex};
+     * the database is only asked to resolve the tag names and load the page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPostsByTags(List<String> all, List<String> any, List<String> none,
+                                                     String after, int limit) {
+        int pageSize = pageSize(limit);
+        Long before = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                before = Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        Set<String> allNames = TagService.normalizeNames(all == null ? List.of() : all);
+        Set<String> anyNames = TagService.normalizeNames(any == null ? List.of() : any);
+        Set<String> noneNames = TagService.normalizeNames(none == null ? List.of() : none);
+        if (allNames.isEmpty() && anyNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag in all or any is required");
+        }
+        Set<String> names = new HashSet<>(allNames);
+        names.addAll(anyNames);
+        names.addAll(noneNames);
+        Map<String, Long> tagIds = tagRepository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getId));
+        List<Long> allIds = idsOf(allNames, tagIds);
+        List<Long> anyIds = idsOf(anyNames, tagIds);
+        // A required tag that does not exist, or only unknown optional ones, match nothing
+        if (allIds.size() < allNames.size() || (allIds.isEmpty() && anyIds.isEmpty())) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        List<Long> ids = postTagIndex.query(allIds, anyIds, idsOf(noneNames, tagIds), before, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        String nextCursor = hasMore ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null;
+        return new CursorPage<>(fetchSummaries(pageIds), nextCursor);
+    }
+
+    private static List<Long> idsOf(Set<String> names, Map<String, Long> tagIds) {
+        return names.stream()
+                .map(tagIds::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public PostDTO getPostById(@NonNull Long id) {
-        Post post = postRepository.findByIdWithRelations(id)
+        return postCache.get(id, postId -> {
+            Post post = postRepository.findByIdWithRelations(postId)
+                    .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
+            return new VersionedPost(convertToDTO(post), versionOf(post));
+        }).post();
+    }
+
+    // Served from the post cache when it holds the post; only a miss runs the metadata query
+    @Transactional(readOnly = true)
+    public ResourceVersion getPostVersion(@NonNull Long id) {
+        VersionedPost cached = postCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.version();
+        }
+        PostVersion version = postRepository.findVersionsByIdIn(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
-        return convertToDTO(post);
+        return postVersion(version);
+    }
+
+    // The same metadata findVersionsByIdIn reads, taken from the loaded post and its relations
+    private static ResourceVersion versionOf(Post post) {
+        Category category = post.getCategory();
+        LocalDateTime tagsUpdatedAt = post.getTags().stream()
+                .map(Tag::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        return postVersion(new PostVersion(post.getId(), post.getUpdatedAt(),
+                category == null ? null : category.getId(), category == null ? null : category.getUpdatedAt(),
+                (long) post.getTags().size(), tagsUpdatedAt));
+    }
+
+    private static ResourceVersion postVersion(PostVersion version) {
+        return ResourceVersion.of(version.lastModified(), "post", version);
     }
 
     @Transactional
@@ -64,20 +281,14 @@ public class PostService {
             post.setCategory(category);
         }
 
-        if (postRequest.getTagIds() != null) {
-            if (!postRequest.getTagIds().isEmpty()) {
-                // Set tags when non-empty set is provided
-                Set<Tag> tags = postRequest.getTagIds().stream()
-                        .map(tagId -> tagRepository.findById(Objects.requireNonNull(tagId))
-                                .orElseThrow(() -> new RuntimeException("Tag not found with id: " + tagId)))
-                        .collect(Collectors.toSet());
-                post.setTags(tags);
-            }
-            // If tagIds is empty, post starts with no tags (default behavior)
+        Set<Tag> tags = resolveTags(postRequest);
+        if (tags != null) {
+            post.setTags(tags);
         }
-        // If tagIds is null, post starts with no tags (default behavior)
+        // If neither tagIds nor tagNames is provided, post starts with no tags (default behavior)
 
         Post savedPost = postRepository.save(post);
+        postTagIndex.setTags(savedPost.getId(), tagIdsOf(savedPost));
         return convertToDTO(savedPost);
     }
 
@@ -98,6 +309,8 @@ public class PostService {
 
         post.setTitle(postRequest.getTitle());
         post.setContent(postRequest.getContent());
+        // Marks the post dirty even when only its tags change, so updatedAt (and the ETag) moves
+        post.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
         if (postRequest.getCategoryId() != null) {
             Long categoryId = Objects.requireNonNull(postRequest.getCategoryId());
@@ -108,22 +321,17 @@ public class PostService {
             post.setCategory(null);
         }
 
-        if (postRequest.getTagIds() != null) {
-            if (postRequest.getTagIds().isEmpty()) {
-                // Clear tags when empty set is provided
-                post.setTags(new java.util.HashSet<>());
-            } else {
-                // Set tags when non-empty set is provided
-                Set<Tag> tags = postRequest.getTagIds().stream()
-                        .map(tagId -> tagRepository.findById(Objects.requireNonNull(tagId))
-                                .orElseThrow(() -> new RuntimeException("Tag not found with id: " + tagId)))
-                        .collect(Collectors.toSet());
-                post.setTags(tags);
-            }
+        // Empty sets clear the tags; if neither tagIds nor tagNames is provided, leave existing tags unchanged
+        Set<Tag> tags = resolveTags(postRequest);
+        if (tags != null) {
+            post.setTags(tags);
         }
-        // If tagIds is null, leave existing tags unchanged
 
         Post updatedPost = postRepository.save(post);
+        postCache.evict(id);
+        if (tags != null) {
+            postTagIndex.setTags(id, tagIdsOf(updatedPost));
+        }
         return convertToDTO(updatedPost);
     }
 
@@ -143,9 +351,55 @@ public class PostService {
         }
 
         postRepository.delete(post);
+        postCache.evict(id);
+        postTagIndex.removePost(id);
+    }
+
+    // Resolves tagIds with one query and tagNames with one upsert plus one query, whatever the
+    // number of tags. Returns null when the request specifies neither.
+    private Set<Tag> resolveTags(PostRequest postRequest) {
+        if (postRequest.getTagIds() == null && postRequest.getTagNames() == null) {
+            return null;
+        }
+        Set<Tag> tags = new HashSet<>();
+        if (postRequest.getTagIds() != null && !postRequest.getTagIds().isEmpty()) {
+            tags.addAll(tagService.findAllByIds(postRequest.getTagIds()));
+        }
+        if (postRequest.getTagNames() != null && !postRequest.getTagNames().isEmpty()) {
+            tags.addAll(tagService.findOrCreateByNames(postRequest.getTagNames()));
+        }
+        return tags;
+    }
+
+    private static List<Long> tagIdsOf(Post post) {
+        return post.getTags().stream()
+                .map(Tag::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Loads a page of summaries with a fixed number of queries regardless of page size or tag
+    // count: one for the post columns, author and category, one for tag names. Neither reads
+    // the content column. The result follows the order of the given ids.
+    private List<PostSummaryDTO> fetchSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummaryDTO> summariesById = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+        for (PostTagName tagName : postRepository.findTagNamesByPostIdIn(ids)) {
+            PostSummaryDTO summary = summariesById.get(tagName.getPostId());
+            if (summary != null) {
+                summary.getTagNames().add(tagName.getName());
+            }
+        }
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private PostDTO convertToDTO(Post post) {
+    // Package-private so the JMH benchmarks can measure it on its own
+    PostDTO convertToDTO(Post post) {
         PostDTO dto = new PostDTO();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
@@ -0,0 +1,346 @@
+package com.blog.service;
+
+import com.blog.dto.TagIndexStatsDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory postings of tag id to post ids, one compressed bitmap per tag, for boolean tag
+ * queries (all of / any of / none of) that would otherwise need a self-join of post_tags per tag.
+ * <p>
+ * The bitmaps hold post ordinals rather than post ids: positions in a sorted table of every
+ * indexed post id. Consecutive posts get ids thousands apart, and a bitmap of raw ids would spend
+ * a container on nearly every post; ordinals are dense, so they compress the way sequential ids
+ * used to, for 8 bytes per post in the table.
+ * <p>
+ * Built from post_tags at startup and kept current by the post write paths, which apply their
+ * changes once the transaction commits. Writes made directly in the database are picked up by
+ * {@link #rebuild()}. Results are post ids newest first by id; ids that no longer exist simply
+ * drop out when the page is loaded.
+ */
+@Component
+public class PostTagIndex implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostTagIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    // Changes committed while a rebuild reads post_tags, replayed onto the rebuilt postings
+    private List<Consumer<Postings>> pendingChanges;
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the postings with a fresh read of post_tags. Changes applied while the table is
+     * being read are replayed onto the result, so none are lost.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Postings rebuilt = new Postings();
+        try {
+            // In post id order, so every post is appended to the ordinal table
+            jdbcTemplate.query("SELECT post_id, tag_id FROM post_tags ORDER BY post_id", rs -> {
+                rebuilt.tag(rs.getLong(2)).add(rebuilt.add(rs.getLong(1)));
+            });
+            rebuilt.byTag.values().forEach(RoaringBitmap::runOptimize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Post tag index built: {} tags, {} bytes", rebuilt.byTag.size(), stats().getSizeInBytes());
+    }
+
+    /**
+     * Records the complete tag set of a post once the current transaction commits, replacing
+     * whatever the index held for it.
+     */
+    public void setTags(long postId, @NonNull Collection<Long> tagIds) {
+        List<Long> tags = List.copyOf(tagIds);
+        afterCommit(map -> {
+            map.remove(postId);
+            if (!tags.isEmpty()) {
+                int ordinal = map.add(postId);
+                for (Long tagId : tags) {
+                    map.tag(tagId).add(ordinal);
+                }
+            }
+        });
+    }
+
+    public void addPosts(@NonNull Map<Long, ? extends Collection<Long>> tagIdsByPostId) {
+        Map<Long, List<Long>> additions = new HashMap<>();
+        tagIdsByPostId.forEach((postId, tagIds) -> additions.put(postId, List.copyOf(tagIds)));
+        long[] postIds = additions.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        // Ascending, so new posts are appended to the ordinal table rather than inserted
+        afterCommit(map -> {
+            for (long postId : postIds) {
+                List<Long> tagIds = additions.get(postId);
+                if (!tagIds.isEmpty()) {
+                    int ordinal = map.add(postId);
+                    for (Long tagId : tagIds) {
+                        map.tag(tagId).add(ordinal);
+                    }
+                }
+            }
+        });
+    }
+
+    public void removePost(long postId) {
+        afterCommit(map -> map.remove(postId));
+    }
+
+    public void removeTag(long tagId) {
+        afterCommit(map -> map.byTag.remove(tagId));
+    }
+
+    /**
+     * Up to {@code limit} ids, newest first, of posts carrying every tag in {@code all}, at least
+     * one tag in {@code any} (when given) and none in {@code none}. Paging skips ids at or above
+     * {@code before}, so a deep page walks past the matches that precede it.
+     */
+    public List<Long> query(Collection<Long> all, Collection<Long> any, Collection<Long> none,
+                            Long before, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = matching(all, any, none);
+            int end = before == null ? postings.size : postings.ordinalsBelow(before);
+            List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+            for (long ordinal = previous(matches, end - 1); ordinal >= 0 && ids.size() < limit;
+                 ordinal = previous(matches, (int) ordinal - 1)) {
+                ids.add(postings.ids[(int) ordinal]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        lock.readLock().lock();
+        try {
+            return matching(all, any, none).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The result is a new bitmap of ordinals; callers hold the read lock while mapping it to ids
+    private RoaringBitmap matching(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        if (all.isEmpty() && any.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag to match is required");
+        }
+        RoaringBitmap result = null;
+        for (Long tagId : all) {
+            RoaringBitmap posts = postings.byTag.get(tagId);
+            if (posts == null) {
+                return new RoaringBitmap();
+            }
+            if (result == null) {
+                result = posts.clone();
+            } else {
+                result.and(posts);
+            }
+        }
+        if (!any.isEmpty()) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (Long tagId : any) {
+                RoaringBitmap posts = postings.byTag.get(tagId);
+                if (posts != null) {
+                    union.or(posts);
+                }
+            }
+            if (result == null) {
+                result = union;
+            } else {
+                result.and(union);
+            }
+        }
+        for (Long tagId : none) {
+            RoaringBitmap posts = postings.byTag.get(tagId);
+            if (posts != null) {
+                result.andNot(posts);
+            }
+        }
+        return result;
+    }
+
+    // previousValue treats its argument as unsigned, so -1 would wrap to the largest ordinal
+    private static long previous(RoaringBitmap bitmap, int from) {
+        return from < 0 ? -1 : bitmap.previousValue(from);
+    }
+
+    public TagIndexStatsDTO stats() {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap posts = new RoaringBitmap();
+            long entries = 0;
+            for (RoaringBitmap tagPosts : postings.byTag.values()) {
+                posts.or(tagPosts);
+                entries += tagPosts.getLongCardinality();
+            }
+            return TagIndexStatsDTO.of(postings.byTag.size(), posts.getLongCardinality(), entries,
+                    postings.sizeInBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        // Cheaper than stats(), which also counts distinct posts
+        Gauge.builder("blog.tag-index.bytes", this, index -> index.read(Postings::sizeInBytes))
+                .description("Size of the tag postings bitmaps and the post ordinal table")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("blog.tag-index.entries", this, index -> index.read(Postings::entries))
+                .description("Post-tag pairs held by the tag index")
+                .register(registry);
+    }
+
+    private long read(ToLongFunction<Postings> measure) {
+        lock.readLock().lock();
+        try {
+            return measure.applyAsLong(postings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Applied after commit so a rolled-back write never shows up in query results
+    private void afterCommit(Consumer<Postings> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Postings> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(postings);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tag bitmaps over post ordinals, and the table mapping ordinals back to post ids. A post
+     * keeps its ordinal after losing its tags, until the next rebuild drops it.
+     */
+    private static final class Postings {
+
+        final Map<Long, RoaringBitmap> byTag = new HashMap<>();
+        // Ascending, so ordinal order is id order
+        long[] ids = new long[1024];
+        int size;
+
+        RoaringBitmap tag(long tagId) {
+            return byTag.computeIfAbsent(tagId, id -> new RoaringBitmap());
+        }
+
+        int ordinalsBelow(long postId) {
+            int position = Arrays.binarySearch(ids, 0, size, postId);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        int add(long postId) {
+            int ordinal = ordinalsBelow(postId);
+            if (ordinal < size && ids[ordinal] == postId) {
+                return ordinal;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1));
+            }
+            if (ordinal < size) {
+                // Older than the newest indexed post, e.g. its transaction committed late: move the
+                // newer posts up one ordinal. That usually touches only the last few ordinals.
+                System.arraycopy(ids, ordinal, ids, ordinal + 1, size - ordinal);
+                RoaringBitmap moving = new RoaringBitmap();
+                moving.add((long) ordinal, (long) size);
+                for (RoaringBitmap posts : byTag.values()) {
+                    if (!posts.isEmpty() && posts.last() >= ordinal) {
+                        RoaringBitmap moved = RoaringBitmap.and(posts, moving);
+                        posts.remove((long) ordinal, (long) size);
+                        posts.or(RoaringBitmap.addOffset(moved, 1));
+                    }
+                }
+            }
+            ids[ordinal] = postId;
+            size++;
+            return ordinal;
+        }
+
+        void remove(long postId) {
+            int ordinal = ordinalsBelow(postId);
+            if (ordinal < size && ids[ordinal] == postId) {
+                byTag.values().forEach(posts -> posts.remove(ordinal));
+            }
+        }
+
+        long entries() {
+            return byTag.values().stream().mapToLong(RoaringBitmap::getLongCardinality).sum();
+        }
+
+        long sizeInBytes() {
+            return byTag.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum()
+                    + (long) Long.BYTES * ids.length;
+        }
+    }
+}
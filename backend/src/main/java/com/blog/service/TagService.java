@@ -1,16 +1,24 @@
 package com.blog.service;
 
+import com.blog.dto.CollectionVersion;
+import com.blog.dto.EntityVersion;
+import com.blog.dto.ResourceVersion;
 import com.blog.dto.TagDTO;
 import com.blog.dto.TagRequest;
 import com.blog.entity.Tag;
+import com.blog.repository.PostRepository;
 import com.blog.repository.TagRepository;
+import com.blog.repository.TagUpsertRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +27,18 @@ public class TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TagUpsertRepository tagUpsertRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
     @Transactional(readOnly = true)
     public List<TagDTO> getAllTags() {
         return tagRepository.findAll().stream()
@@ -35,6 +55,20 @@ public class TagService {
         return convertToDTO(tag);
     }
 
+    // Validators for conditional GETs, read without loading the tag
+    @Transactional(readOnly = true)
+    public ResourceVersion getTagVersion(@NonNull Long id) {
+        EntityVersion version = tagRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id));
+        return ResourceVersion.of(version.updatedAt(), "tag", version);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllTagsVersion() {
+        CollectionVersion version = tagRepository.findCollectionVersion();
+        return ResourceVersion.of(version.lastModified(), "tags", version);
+    }
+
     @Transactional
     public TagDTO createTag(TagRequest tagRequest) {
         if (tagRepository.existsByName(tagRequest.getName())) {
@@ -62,6 +96,8 @@ public class TagService {
         tag.setName(tagRequest.getName());
 
         Tag updatedTag = tagRepository.save(tag);
+        // Cached posts embed the tag's name and timestamps
+        postCache.evict(postRepository.findIdsByTagId(id));
         return convertToDTO(updatedTag);
     }
 
@@ -72,7 +108,51 @@ public class TagService {
                 .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id)),
                 "Tag must not be null after orElseThrow");
 
+        postCache.evict(postRepository.findIdsByTagId(id));
         tagRepository.delete(tag);
+        postTagIndex.removeTag(id);
+    }
+
+    // Loads the tags with one query and reports every unknown id in a single error
+    @Transactional(readOnly = true)
+    public List<Tag> findAllByIds(@NonNull Collection<Long> ids) {
+        Set<Long> tagIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Tag> found = tagRepository.findAllById(tagIds);
+        if (found.size() < tagIds.size()) {
+            Set<Long> foundIds = found.stream().map(Tag::getId).collect(Collectors.toSet());
+            List<Long> missing = tagIds.stream()
+                    .filter(tagId -> !foundIds.contains(tagId))
+                    .sorted()
+                    .collect(Collectors.toList());
+            throw new RuntimeException("Tags not found with ids: " + missing);
+        }
+        return found;
+    }
+
+    // Creates whichever of the named tags do not exist yet with one upsert, then loads them all
+    // with one query
+    @Transactional
+    public List<Tag> findOrCreateByNames(@NonNull Collection<String> names) {
+        Set<String> tagNames = normalizeNames(names);
+        if (tagNames.isEmpty()) {
+            return List.of();
+        }
+        tagUpsertRepository.insertMissing(tagNames);
+        return tagRepository.findByNameIn(tagNames);
+    }
+
+    // Trimmed and sorted, so concurrent upserts of overlapping names lock rows in the same order
+    public static Set<String> normalizeNames(@NonNull Collection<String> names) {
+        Set<String> tagNames = names.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (tagNames.stream().anyMatch(name -> name.length() < 2 || name.length() > 50)) {
+            throw new IllegalArgumentException("Tag names must be between 2 and 50 characters");
+        }
+        return tagNames;
     }
 
     private TagDTO convertToDTO(@NonNull Tag tag) {
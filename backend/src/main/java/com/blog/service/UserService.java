@@ -0,0 +1,57 @@
+package com.blog.service;
+
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional
+    public void setEnabled(@NonNull Long id, boolean enabled) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+
+        user.setEnabled(enabled);
+        if (!enabled) {
+            // Tokens issued before the user was disabled must not come back to life on re-enable
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+    }
+
+    @Transactional
+    public void revokeTokens(@NonNull Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    /**
+     * Replaces the user's roles. Changing only the roles collection does not update the users row,
+     * so no entity listener would fire; bumping the token version does, which evicts the cached
+     * principal and retires tokens that still carry the old roles.
+     */
+    @Transactional
+    public void setRoles(@NonNull Long id, @NonNull Set<User.Role> roles) {
+        if (roles.isEmpty()) {
+            throw new IllegalArgumentException("A user needs at least one role");
+        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+
+        if (!user.getRoles().equals(roles)) {
+            user.getRoles().clear();
+            user.getRoles().addAll(roles);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+    }
+}
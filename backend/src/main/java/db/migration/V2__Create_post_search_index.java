@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * GIN index behind the PostgreSQL full-text search in PostSearchRepository. Built concurrently,
+ * which cannot run inside a transaction, so posts stay writable while it builds. Other databases
+ * search with LIKE and get no index.
+ */
+public class V2__Create_post_search_index extends BaseJavaMigration {
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            // The expression must match PostSearchRepository.DOCUMENT exactly
+            statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_search ON posts USING GIN (("
+                    + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(content, '')), 'B')))");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fills in the excerpt of posts written before the column existed. Runs outside a transaction
+ * and commits each batch, so a large table is not locked as a whole and an interrupted run
+ * resumes where it stopped.
+ * <p>
+ * The excerpt rules are copied from {@code Post.excerptOf} as they were when this migration was
+ * written. An applied migration must not change, so later changes to the entity stay out of it.
+ */
+public class V3__Backfill_post_excerpts extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int EXCERPT_LENGTH = 200;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query("SELECT id, content FROM posts WHERE excerpt IS NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[] {
+                            Objects.requireNonNullElse(excerptOf(rs.getString("content")), ""), rs.getLong("id")},
+                    BATCH_SIZE);
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE posts SET excerpt = ? WHERE id = ?", batch);
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    private static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = HtmlUtils.htmlUnescape(content.replaceAll("<[^>]*>", " "))
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, end > 0 ? end : EXCERPT_LENGTH).trim() + "...";
+    }
+}
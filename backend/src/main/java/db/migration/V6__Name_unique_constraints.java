@@ -0,0 +1,66 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Gives the unique constraints the names V1 creates them with. Databases that Hibernate's
+ * {@code ddl-auto=update} created were baselined with its generated {@code uk<hash>} names, which
+ * {@code CREATE TABLE IF NOT EXISTS} left in place; AuthService tells a duplicate username from a
+ * duplicate email by constraint name. Single-column unique constraints on the columns below are
+ * renamed unless the expected name already exists. Runs unchanged on PostgreSQL and H2.
+ */
+public class V6__Name_unique_constraints extends BaseJavaMigration {
+
+    // table, column, constraint name
+    private static final List<String[]> CONSTRAINTS = List.of(
+            new String[] {"users", "username", "uk_users_username"},
+            new String[] {"users", "email", "uk_users_email"},
+            new String[] {"categories", "name", "uk_categories_name"},
+            new String[] {"tags", "name", "uk_tags_name"});
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        for (String[] constraint : CONSTRAINTS) {
+            rename(jdbcTemplate, constraint[0], constraint[1], constraint[2]);
+        }
+    }
+
+    private static void rename(JdbcTemplate jdbcTemplate, String table, String column, String name) {
+        // Constraint name -> its columns; only single-column constraints on the column qualify
+        Map<String, Integer> columnCounts = new HashMap<>();
+        Map<String, String> columns = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT tc.constraint_name, kcu.column_name
+                FROM information_schema.table_constraints tc
+                JOIN information_schema.key_column_usage kcu
+                  ON kcu.constraint_schema = tc.constraint_schema AND kcu.constraint_name = tc.constraint_name
+                WHERE tc.constraint_type = 'UNIQUE' AND LOWER(tc.table_name) = ?
+                  AND tc.table_schema = CURRENT_SCHEMA
+                """, rs -> {
+            String constraintName = rs.getString(1);
+            columnCounts.merge(constraintName, 1, Integer::sum);
+            columns.put(constraintName, rs.getString(2).toLowerCase(Locale.ROOT));
+        }, table);
+
+        if (columnCounts.keySet().stream().anyMatch(existing -> existing.equalsIgnoreCase(name))) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : columnCounts.entrySet()) {
+            String constraintName = entry.getKey();
+            if (entry.getValue() == 1 && column.equals(columns.get(constraintName))) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " RENAME CONSTRAINT \""
+                        + constraintName.replace("\"", "\"\"") + "\" TO " + name);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+-- Schema previously created by Hibernate's ddl-auto=update. Every statement is idempotent so the
+-- migration also applies cleanly to databases that Hibernate created (Flyway baselines them at
+-- version 0). Runs unchanged on PostgreSQL and H2.
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username      VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    enabled       BOOLEAN DEFAULT TRUE NOT NULL,
+    token_version INTEGER DEFAULT 0 NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Columns added after the first release; present already on databases Hibernate kept up to date
+ALTER TABLE users ADD COLUMN IF NOT EXISTS enabled BOOLEAN DEFAULT TRUE NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL,
+    role    VARCHAR(255) CHECK (role IN ('ROLE_USER', 'ROLE_ADMIN')),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS tags (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_tags_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS posts (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    content     TEXT NOT NULL,
+    excerpt     VARCHAR(300),
+    author_id   BIGINT NOT NULL,
+    category_id BIGINT,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT fk_posts_author FOREIGN KEY (author_id) REFERENCES users (id),
+    CONSTRAINT fk_posts_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS excerpt VARCHAR(300);
+
+CREATE TABLE IF NOT EXISTS post_tags (
+    post_id BIGINT NOT NULL,
+    tag_id  BIGINT NOT NULL,
+    PRIMARY KEY (post_id, tag_id),
+    CONSTRAINT fk_post_tags_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_post_tags_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+);
+
+-- Neither database indexes foreign keys on its own. Each index below serves a query in
+-- PostRepository or UserRepository and also keeps cascading deletes from scanning.
+
+-- Keyset pages: ORDER BY created_at DESC, id DESC with a (created_at, id) cursor
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts (created_at, id);
+
+-- findByAuthorId, and deleting a user's posts
+CREATE INDEX IF NOT EXISTS idx_posts_author_id ON posts (author_id);
+
+-- findIdsByCategoryId reads only the index; findByCategoryId uses its leading column
+CREATE INDEX IF NOT EXISTS idx_posts_category_id_id ON posts (category_id, id);
+
+-- findByTagId / findIdsByTagId; lookups by post use the primary key (post_id, tag_id)
+CREATE INDEX IF NOT EXISTS idx_post_tags_tag_id_post_id ON post_tags (tag_id, post_id);
+
+-- Roles are loaded with every user
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id);
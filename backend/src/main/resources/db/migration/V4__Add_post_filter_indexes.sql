@@ -0,0 +1,10 @@
+-- Filtered post listings: WHERE author_id = ? or category_id = ?, ORDER BY created_at DESC, id DESC
+-- with a (created_at, id) cursor. Equality column first, then the sort keys, so a page is read in
+-- order from the index and the scan stops after the page. These replace the single-column
+-- indexes from V1; their leading column still serves findByAuthorId, findByCategoryId and
+-- deletes, and findIdsByCategoryId still reads only the index.
+CREATE INDEX IF NOT EXISTS idx_posts_author_id_created_at_id ON posts (author_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_posts_category_id_created_at_id ON posts (category_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_posts_author_id;
+DROP INDEX IF EXISTS idx_posts_category_id_id;
@@ -0,0 +1,8 @@
+-- Ids are now allocated by the application (Snowflake: creation time, node and sequence) before
+-- the insert, so Hibernate can batch inserts. The identity defaults are dropped so a write that
+-- forgets the id fails instead of taking a small sequence number. Existing rows keep their ids;
+-- those are far below any generated id, so ordering by id still follows creation order.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY;
@@ -10,7 +10,9 @@ import com.blog.repository.TagRepository;
 import com.blog.repository.UserRepository;
 import com.blog.security.JwtTokenProvider;
 import com.blog.security.UserPrincipal;
+import com.blog.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +28,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Set;
 
+import static com.blog.monitoring.QueryCounter.assertMaxQueryCount;
+import static com.blog.monitoring.QueryCounter.assertQueryCount;
+import static com.blog.monitoring.QueryCounter.count;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -59,6 +66,12 @@ class PostControllerTest {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User author;
     private Category category;
     private Tag tag1;
@@ -106,7 +119,135 @@ class PostControllerTest {
         mockMvc.perform(get("/api/posts"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].title").value("Test Post"));
+                .andExpect(jsonPath("$[0].title").value("Test Post"))
+                .andExpect(jsonPath("$[0].excerpt").value("Test Content"))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void testGetAllPostsWithCursor() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Post post = new Post();
+            post.setTitle("Test Post " + i);
+            post.setContent("Test Content");
+            post.setAuthor(author);
+            postRepository.save(post);
+        }
+
+        String nextCursor = mockMvc.perform(get("/api/posts").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/posts").param("after", nextCursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllPostsFiltered() throws Exception {
+        savePosts(3);
+        Post uncategorized = new Post();
+        uncategorized.setTitle("Uncategorized");
+        uncategorized.setContent("Test Content");
+        uncategorized.setAuthor(author);
+        postRepository.save(uncategorized);
+        entityManager.flush();
+
+        String nextCursor = mockMvc.perform(get("/api/posts")
+                        .param("categoryId", category.getId().toString())
+                        .param("tagId", tag1.getId().toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].categoryName").value("Technology"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/posts")
+                        .param("categoryId", category.getId().toString())
+                        .param("tagId", tag1.getId().toString())
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/posts").param("authorId", author.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+    }
+
+    @Test
+    void testGetAllPostsQueryCountDoesNotGrowWithPosts() throws Exception {
+        savePosts(3);
+        entityManager.flush();
+        entityManager.clear();
+        int fewPosts = count(() -> mockMvc.perform(get("/api/posts")).andExpect(status().isOk())).getQueryCount();
+
+        savePosts(20);
+        entityManager.flush();
+        entityManager.clear();
+        int fullPage = count(() -> mockMvc.perform(get("/api/posts")).andExpect(status().isOk())).getQueryCount();
+
+        assertEquals(fewPosts, fullPage);
+        // Validators: page ids and versions; body: summaries and tag names, reusing the page ids
+        assertTrue(fullPage <= 4, "GET /api/posts executed " + fullPage + " statements");
+    }
+
+    @Test
+    void testGetPostByIdQueryCount() throws Exception {
+        Post post = new Post();
+        post.setTitle("Test Post");
+        post.setContent("Test Content");
+        post.setAuthor(author);
+        post.setCategory(category);
+        post.setTags(Set.of(tag1));
+        Long id = postRepository.save(post).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Version lookup plus the post with its author, category and tags
+        assertMaxQueryCount(2, () -> mockMvc.perform(get("/api/posts/" + id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void testGetPostByIdConditionalIsAnsweredFromCache() throws Exception {
+        Post post = new Post();
+        post.setTitle("Test Post");
+        post.setContent("Test Content");
+        post.setAuthor(author);
+        post.setCategory(category);
+        post.setTags(Set.of(tag1));
+        Long id = postRepository.save(post).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // The miss runs the version query; the version cached with the post must produce the same ETag
+        String etag = mockMvc.perform(get("/api/posts/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertQueryCount(0, () -> mockMvc.perform(get("/api/posts/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified()));
+    }
+
+    private void savePosts(int count) {
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setTitle("Counted Post " + i);
+            post.setContent("Counted Content");
+            post.setAuthor(author);
+            post.setCategory(category);
+            post.setTags(Set.of(tag1));
+            postRepository.save(post);
+        }
+    }
+
+    @Test
+    void testGetAllPostsInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/posts").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -125,6 +266,65 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.categoryId").value(category.getId()));
     }
 
+    @Test
+    void testGetPostByIdConditional() throws Exception {
+        Post post = new Post();
+        post.setTitle("Test Post");
+        post.setContent("Test Content");
+        post.setAuthor(author);
+        Post saved = postRepository.save(post);
+
+        String etag = mockMvc.perform(get("/api/posts/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/posts/{id}", saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Changing only the tags must produce a new validator
+        String requestBody = objectMapper.writeValueAsString(new PostRequest(
+                "Test Post", "Test Content", null, Set.of(tag1.getId())
+        ));
+        mockMvc.perform(put("/api/posts/{id}", saved.getId())
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts/{id}", saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0].name").value("Java"));
+    }
+
+    @Test
+    void testGetAllPostsConditional() throws Exception {
+        Post post = new Post();
+        post.setTitle("Test Post");
+        post.setContent("Test Content");
+        post.setAuthor(author);
+        postRepository.save(post);
+
+        String etag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/posts").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Post newer = new Post();
+        newer.setTitle("Newer Post");
+        newer.setContent("Newer Content");
+        newer.setAuthor(author);
+        postRepository.save(newer);
+
+        mockMvc.perform(get("/api/posts").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Newer Post"));
+    }
+
     @Test
     void testGetPostByIdNotFound() throws Exception {
         mockMvc.perform(get("/api/posts/999"))
@@ -161,6 +361,22 @@ class PostControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @SuppressWarnings("null")
+    void testCreatePostWithRevokedToken() throws Exception {
+        userService.revokeTokens(author.getId());
+
+        String requestBody = objectMapper.writeValueAsString(new PostRequest(
+                "New Post", "New Content", null, null
+        ));
+
+        mockMvc.perform(post("/api/posts")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @SuppressWarnings("null")
     void testUpdatePost() throws Exception {
@@ -196,6 +412,26 @@ class PostControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void testImportPosts() throws Exception {
+        String body = objectMapper.writeValueAsString(new PostRequest(
+                "Imported One", "Content one", category.getId(), Set.of(tag1.getId()))) + "\n"
+                + objectMapper.writeValueAsString(new PostRequest(
+                "Imported Two", "Content two", 999999L, null)) + "\n"
+                + objectMapper.writeValueAsString(new PostRequest(
+                "Imported Three", "Content three", null, null)) + "\n";
+
+        mockMvc.perform(post("/api/posts/import")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Category not found with id: 999999"));
+    }
+
     // Helper record class for request body
     private record PostRequest(String title, String content, Long categoryId, Set<Long> tagIds) {}
 }
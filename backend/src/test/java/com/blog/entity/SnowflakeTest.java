@@ -0,0 +1,34 @@
+package com.blog.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTest {
+
+    @Test
+    void testRestartContinuesAfterIdsIssuedAheadOfTheClock() {
+        AtomicLong millis = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        Snowflake snowflake = new Snowflake(3, millis::get);
+        millis.incrementAndGet();
+
+        long last = 0;
+        for (int i = 0; i < 128; i++) {
+            long id = snowflake.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        // A full lead ahead of the clock, as after a burst
+        assertEquals(millis.get() + Snowflake.MAX_LEAD_MILLIS, Snowflake.timestampOf(last).toEpochMilli());
+        assertEquals(3, Snowflake.nodeOf(last));
+
+        // Same node and clock, as if the process had restarted straight away
+        Snowflake restarted = new Snowflake(3, millis::get);
+        millis.incrementAndGet();
+
+        assertTrue(restarted.nextId() > last);
+    }
+}
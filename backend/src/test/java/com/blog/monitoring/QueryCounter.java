@@ -0,0 +1,81 @@
+package com.blog.monitoring;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts how many SQL statements a block of test code executes, so that an N+1 query or a
+ * per-row lookup fails the build instead of slipping through a correctness-only test.
+ * <p>
+ * Counts every statement sent through the proxied DataSource on the current thread, including
+ * each batch as one. Hibernate defers writes until flush, so blocks that save entities should
+ * flush inside the block, and reads should start from a cleared persistence context (and post
+ * cache) to measure real database work. Tests using a JPA slice need
+ * {@code @Import({QueryStatistics.class, QueryStatisticsDataSourcePostProcessor.class})}.
+ */
+public final class QueryCounter {
+
+    @FunctionalInterface
+    public interface Block {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T get() throws Exception;
+    }
+
+    private QueryCounter() {
+    }
+
+    public static QueryScope count(Block block) throws Exception {
+        try (QueryScope scope = QueryScope.open("test")) {
+            block.run();
+            return scope;
+        }
+    }
+
+    public static void assertQueryCount(int expected, Block block) throws Exception {
+        check(count(block), expected, true);
+    }
+
+    public static <T> T assertQueryCount(int expected, Action<T> action) throws Exception {
+        return run(action, expected, true);
+    }
+
+    public static void assertMaxQueryCount(int max, Block block) throws Exception {
+        check(count(block), max, false);
+    }
+
+    public static <T> T assertMaxQueryCount(int max, Action<T> action) throws Exception {
+        return run(action, max, false);
+    }
+
+    private static <T> T run(Action<T> action, int limit, boolean exact) throws Exception {
+        T result;
+        QueryScope scope = QueryScope.open("test");
+        try {
+            result = action.get();
+        } finally {
+            scope.close();
+        }
+        check(scope, limit, exact);
+        return result;
+    }
+
+    private static void check(QueryScope scope, int limit, boolean exact) {
+        int actual = scope.getQueryCount();
+        if (exact ? actual == limit : actual <= limit) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append("Expected ").append(exact ? "" : "at most ").append(limit)
+                .append(limit == 1 ? " statement" : " statements")
+                .append(" but ").append(actual).append(actual == 1 ? " was" : " were").append(" executed:");
+        for (Map.Entry<String, Integer> entry : scope.getExecutions().entrySet()) {
+            message.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+        }
+        fail(message.toString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.blog.monitoring;
+
+import com.blog.dto.NPlusOneDTO;
+import com.blog.dto.SqlStatementStatsDTO;
+import com.blog.dto.SqlStatsDTO;
+import com.blog.entity.Tag;
+import com.blog.repository.TagRepository;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.sql.statistics.count-rows=true")
+@ActiveProfiles("test")
+@Transactional
+class QueryStatisticsTest {
+
+    private static final String SELECT_TAG = "SELECT name FROM tags WHERE id = ?";
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> tagIds;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository.deleteAll();
+        tagIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Tag tag = new Tag();
+            tag.setName("Tag " + i);
+            tagIds.add(tagRepository.saveAndFlush(tag).getId());
+        }
+        queryStatistics.reset();
+    }
+
+    @Test
+    void testScopeCountsQueriesAndRows() {
+        try (QueryScope scope = QueryScope.open("test")) {
+            jdbcTemplate.queryForList("SELECT name FROM tags", String.class);
+            jdbcTemplate.queryForObject(SELECT_TAG, String.class, tagIds.get(0));
+
+            assertEquals(2, scope.getQueryCount());
+            assertEquals(7, scope.getRowCount());
+            assertEquals(1, scope.getExecutions().get(SELECT_TAG));
+        }
+
+        SqlStatementStatsDTO stats = statementStats(SELECT_TAG);
+        assertEquals(1, stats.getExecutions());
+        assertEquals(1, stats.getRows());
+    }
+
+    @Test
+    void testNestedScopesAddToEnclosingScope() {
+        try (QueryScope outer = QueryScope.open("outer")) {
+            try (QueryScope inner = QueryScope.open("inner")) {
+                jdbcTemplate.queryForObject(SELECT_TAG, String.class, tagIds.get(0));
+                assertEquals(1, inner.getQueryCount());
+            }
+            jdbcTemplate.queryForObject(SELECT_TAG, String.class, tagIds.get(1));
+            assertEquals(2, outer.getQueryCount());
+        }
+    }
+
+    @Test
+    void testRepeatedSelectIsReportedAsNPlusOne() {
+        QueryScope scope = QueryScope.open("GET /api/test");
+        try {
+            jdbcTemplate.queryForList("SELECT id FROM tags", Long.class);
+            for (Long id : tagIds) {
+                jdbcTemplate.queryForObject(SELECT_TAG, String.class, id);
+            }
+        } finally {
+            scope.close();
+        }
+        queryStatistics.recordRequest(scope, "GET", "/api/test");
+
+        List<NPlusOneDTO> reported = queryStatistics.snapshot(10).getNPlusOne();
+        assertEquals(1, reported.size());
+        assertEquals(SELECT_TAG, reported.get(0).getSql());
+        assertEquals(6, reported.get(0).getExecutions());
+        assertEquals("GET /api/test", reported.get(0).getRequest());
+    }
+
+    @Test
+    void testBelowThresholdIsNotReported() {
+        QueryScope scope = QueryScope.open("GET /api/test");
+        try {
+            jdbcTemplate.queryForObject(SELECT_TAG, String.class, tagIds.get(0));
+            jdbcTemplate.queryForObject(SELECT_TAG, String.class, tagIds.get(1));
+        } finally {
+            scope.close();
+        }
+        queryStatistics.recordRequest(scope, "GET", "/api/test");
+
+        assertTrue(queryStatistics.snapshot(10).getNPlusOne().isEmpty());
+    }
+
+    @Test
+    void testNormalizeCollapsesPlaceholderLists() {
+        assertEquals("SELECT * FROM tags WHERE id IN (?)",
+                QueryStatistics.normalize(List.of(new QueryInfo("SELECT *\n  FROM tags WHERE id IN (?, ?, ?)"))));
+        assertEquals("INSERT INTO post_tags (post_id) VALUES (?)",
+                QueryStatistics.normalize(List.of(new QueryInfo("INSERT INTO post_tags (post_id) VALUES (?), (?), (?)"))));
+    }
+
+    private SqlStatementStatsDTO statementStats(String sql) {
+        SqlStatsDTO snapshot = queryStatistics.snapshot(100);
+        return snapshot.getStatements().stream()
+                .filter(stats -> stats.getSql().equals(sql))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -1,23 +1,38 @@
 package com.blog.repository;
 
+import com.blog.dto.PostSummaryDTO;
+import com.blog.dto.PostTagName;
 import com.blog.entity.Category;
 import com.blog.entity.Post;
+import com.blog.entity.Snowflake;
 import com.blog.entity.Tag;
 import com.blog.entity.User;
+import com.blog.monitoring.QueryStatistics;
+import com.blog.monitoring.QueryStatisticsDataSourcePostProcessor;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import static com.blog.monitoring.QueryCounter.assertQueryCount;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @ActiveProfiles("test")
+@Import({QueryStatistics.class, QueryStatisticsDataSourcePostProcessor.class})
 class PostRepositoryTest {
 
     @Autowired
@@ -32,6 +47,9 @@ class PostRepositoryTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User author;
     private Category category;
     private Tag tag1;
@@ -105,6 +123,63 @@ class PostRepositoryTest {
         assertTrue(saved.getTags().contains(tag2));
     }
 
+    @Test
+    void testIdsAreAssignedOnPersistAndInsertsAreBatched() throws Exception {
+        entityManager.flush();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Post post = new Post();
+            post.setTitle("Batched Post " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            posts.add(postRepository.save(post));
+        }
+
+        // Known before the insert, newest last, and stamped with the allocation time
+        assertTrue(posts.get(0).getId() < posts.get(1).getId());
+        assertTrue(posts.get(1).getId() < posts.get(2).getId());
+        assertTrue(posts.get(2).getId() < (1L << 53), "Ids must fit a JavaScript number");
+        Instant allocated = Snowflake.timestampOf(posts.get(2).getId());
+        assertTrue(Duration.between(allocated, Instant.now()).abs().toSeconds() < 60, allocated.toString());
+
+        // The three inserts go out as one batch
+        assertQueryCount(1, () -> entityManager.flush());
+    }
+
+    @Test
+    void testEntityEqualityIsIdBasedAndDoesNotLoadAssociations() {
+        Post post = new Post();
+        post.setTitle("Test Post");
+        post.setContent("Test Content");
+        post.setAuthor(author);
+        post.setTags(Set.of(tag1, tag2));
+        Long id = postRepository.save(post).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Post loaded = entityManager.find(Post.class, id);
+        Post reference = entityManager.getEntityManager().getReference(Post.class, id);
+        Tag tag = entityManager.find(Tag.class, tag1.getId());
+        entityManager.clear();
+        Post proxy = entityManager.getEntityManager().getReference(Post.class, id);
+        entityManager.clear();
+
+        assertEquals(loaded, proxy);
+        assertEquals(proxy, loaded);
+        assertEquals(loaded.hashCode(), proxy.hashCode());
+        assertFalse(Hibernate.isInitialized(proxy));
+        assertSame(loaded, reference);
+
+        assertEquals(Tag.class.hashCode(), tag.hashCode());
+        assertFalse(tag.equals(loaded));
+        assertFalse(Hibernate.isInitialized(tag.getPosts()));
+        assertFalse(Hibernate.isInitialized(loaded.getTags()));
+
+        Post transientPost = new Post();
+        assertNotEquals(transientPost, new Post());
+        assertEquals(transientPost, transientPost);
+    }
+
     @Test
     void testFindAllWithRelations() {
         Post post1 = new Post();
@@ -153,6 +228,106 @@ class PostRepositoryTest {
         assertEquals(2, foundPost.getTags().size());
     }
 
+    @Test
+    void testFindWithRelationsLoadsEverythingInOneQuery() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            post.setCategory(category);
+            post.setTags(Set.of(tag1, tag2));
+            postRepository.save(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Post> posts = assertQueryCount(1, () -> postRepository.findAllWithRelations());
+        assertQueryCount(0, () -> posts.forEach(PostRepositoryTest::touchRelations));
+
+        entityManager.clear();
+        Long id = posts.get(0).getId();
+        Post post = assertQueryCount(1, () -> postRepository.findByIdWithRelations(id).orElseThrow());
+        assertQueryCount(0, () -> touchRelations(post));
+    }
+
+    @Test
+    void testSummaryQueriesDoNotGrowWithPageSize() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            post.setCategory(category);
+            post.setTags(Set.of(tag1, tag2));
+            ids.add(postRepository.save(post).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertQueryCount(1, () -> postRepository.findSummariesByIdIn(ids.subList(0, 2)));
+        assertQueryCount(1, () -> postRepository.findSummariesByIdIn(ids));
+        List<PostTagName> tagNames = assertQueryCount(1, () -> postRepository.findTagNamesByPostIdIn(ids));
+        assertEquals(20, tagNames.size());
+    }
+
+    // Reads every association convertToDTO reads
+    private static void touchRelations(Post post) {
+        post.getAuthor().getUsername();
+        post.getAuthor().getRoles().size();
+        post.getTags().forEach(Tag::getName);
+        if (post.getCategory() != null) {
+            post.getCategory().getName();
+        }
+    }
+
+    @Test
+    void testFindPageIdsAndSummaries() {
+        Post post1 = new Post();
+        post1.setTitle("Post 1");
+        post1.setContent("Content 1");
+        post1.setAuthor(author);
+        post1.setCategory(category);
+        post1.setTags(Set.of(tag1, tag2));
+        post1 = postRepository.save(post1);
+
+        Post post2 = new Post();
+        post2.setTitle("Post 2");
+        post2.setContent("Content 2");
+        post2.setAuthor(author);
+        post2 = postRepository.save(post2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> firstPage = postRepository.findFirstPageIds(PageRequest.of(0, 1));
+        assertEquals(List.of(post2.getId()), firstPage);
+
+        List<Long> secondPage = postRepository.findPageIdsAfter(
+                post2.getCreatedAt(), post2.getId(), PageRequest.of(0, 1));
+        assertEquals(List.of(post1.getId()), secondPage);
+
+        List<PostSummaryDTO> summaries = postRepository.findSummariesByIdIn(secondPage);
+        assertEquals(1, summaries.size());
+        assertEquals("Content 1", summaries.get(0).getExcerpt());
+        assertEquals(category.getName(), summaries.get(0).getCategoryName());
+        assertEquals(author.getUsername(), summaries.get(0).getAuthorUsername());
+
+        List<String> tagNames = postRepository.findTagNamesByPostIdIn(secondPage).stream()
+                .map(PostTagName::getName)
+                .collect(Collectors.toList());
+        assertEquals(List.of("Java", "Spring"), tagNames);
+    }
+
+    @Test
+    void testExcerptOf() {
+        assertEquals("Fish & chips", Post.excerptOf("<p>Fish &amp; <b>chips</b></p>"));
+
+        String excerpt = Post.excerptOf("<p>" + "word ".repeat(100) + "</p>");
+        assertTrue(excerpt.length() <= Post.EXCERPT_LENGTH + 3);
+        assertTrue(excerpt.endsWith("word..."));
+    }
+
     @Test
     @SuppressWarnings("null")
     void testDeletePost() {
@@ -0,0 +1,26 @@
+package com.blog.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostSearchRepositoryTest {
+
+    @Test
+    void testHeadlineIsEscapedBeforeMatchesAreMarked() {
+        String headline = "a <img src=x onerror=alert(1)> \u0002Spring\u0003  tips";
+
+        assertEquals("a &lt;img src=x onerror=alert(1)&gt; <mark>Spring</mark> tips",
+                PostSearchRepository.markHeadline(headline));
+    }
+
+    @Test
+    void testSnippetMarksMatchesOutsideEscapedEntities() {
+        Pattern highlight = Pattern.compile("amp|lt", Pattern.CASE_INSENSITIVE);
+
+        assertEquals("Tom &amp; Jerry &lt;3 <mark>amp</mark>ed <mark>LT</mark>",
+                PostSearchRepository.snippet("Tom & Jerry <3 amped LT", highlight));
+    }
+}
@@ -0,0 +1,35 @@
+package com.blog.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every migration against a real PostgreSQL and starts the application with the production
+ * {@code ddl-auto=validate}, so a mismatch between the entities and the migrated schema fails the
+ * build. The H2 test profile cannot validate: it stores TEXT columns as CLOB.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresSchemaValidationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void testEntitiesMatchMigratedSchema() {
+        // The context would not have started if Hibernate had rejected the schema
+        assertEquals(0, flyway.info().pending().length);
+    }
+}
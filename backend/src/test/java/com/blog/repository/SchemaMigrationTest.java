@@ -0,0 +1,76 @@
+package com.blog.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAllMigrationsApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+        assertTrue(applied.containsAll(List.of("1", "2", "3", "4", "5", "6")), "Applied migrations: " + applied);
+    }
+
+    @Test
+    void testForeignKeyAndPaginationIndexesExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME IN ('POSTS', 'POST_TAGS', 'USER_ROLES')",
+                String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "IDX_POSTS_CREATED_AT_ID",
+                "IDX_POSTS_AUTHOR_ID_CREATED_AT_ID",
+                "IDX_POSTS_CATEGORY_ID_CREATED_AT_ID",
+                "IDX_POST_TAGS_TAG_ID_POST_ID",
+                "IDX_USER_ROLES_USER_ID")), "Indexes: " + indexes);
+        // Superseded by the filter indexes in V4
+        assertFalse(indexes.contains("IDX_POSTS_AUTHOR_ID"), "Indexes: " + indexes);
+        assertFalse(indexes.contains("IDX_POSTS_CATEGORY_ID_ID"), "Indexes: " + indexes);
+    }
+
+    @Test
+    void testIdsAreNotIdentityColumns() {
+        // Dropped in V5; ids come from the application
+        List<String> identityColumns = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE COLUMN_NAME = 'ID' AND IS_IDENTITY = 'YES'"
+                        + " AND TABLE_NAME IN ('USERS', 'CATEGORIES', 'TAGS', 'POSTS')",
+                String.class);
+
+        assertTrue(identityColumns.isEmpty(), "Identity columns: " + identityColumns);
+    }
+
+    @Test
+    void testUniqueConstraintsHaveStableNames() {
+        // AuthService maps duplicate signups to a message by these names
+        List<String> constraints = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE CONSTRAINT_TYPE = 'UNIQUE'",
+                String.class);
+
+        assertTrue(constraints.containsAll(List.of(
+                "UK_USERS_USERNAME", "UK_USERS_EMAIL", "UK_CATEGORIES_NAME", "UK_TAGS_NAME")),
+                "Constraints: " + constraints);
+    }
+}
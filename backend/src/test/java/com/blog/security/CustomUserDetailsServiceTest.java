@@ -0,0 +1,121 @@
+package com.blog.security;
+
+import com.blog.dto.CacheStatsDTO;
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import com.blog.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CustomUserDetailsServiceTest {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("cacheduser");
+        user.setEmail("cached@example.com");
+        user.setPassword("password");
+        user.getRoles().add(User.Role.ROLE_USER);
+        user = userRepository.save(user);
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testLoadUserByIdIsCached() {
+        customUserDetailsService.loadUserById(user.getId());
+        long hits = byIdStats().getHitCount();
+
+        UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(user.getId());
+
+        assertEquals("cacheduser", principal.getUsername());
+        assertEquals(hits + 1, byIdStats().getHitCount());
+        assertEquals(hits + 1, meterRegistry.get("cache.gets")
+                .tags("cache", CustomUserDetailsService.BY_ID_CACHE, "result", "hit").functionCounter().count());
+        // Loads are timed by hand outside Caffeine, and still reach the metrics
+        assertTrue(meterRegistry.get("cache.load.duration")
+                .tag("cache", CustomUserDetailsService.BY_ID_CACHE).timeGauge().value() > 0);
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testCachedUserIsEvictedOnChange() {
+        assertTrue(customUserDetailsService.loadUserById(user.getId()).isEnabled());
+        assertTrue(customUserDetailsService.loadUserByUsername("cacheduser").isEnabled());
+
+        userService.setEnabled(user.getId(), false);
+        userRepository.flush();
+
+        assertFalse(customUserDetailsService.loadUserById(user.getId()).isEnabled());
+        assertFalse(customUserDetailsService.loadUserByUsername("cacheduser").isEnabled());
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testCachedUserIsEvictedOnRoleChange() {
+        assertEquals(1, customUserDetailsService.loadUserById(user.getId()).getAuthorities().size());
+
+        userService.setRoles(user.getId(), Set.of(User.Role.ROLE_USER, User.Role.ROLE_ADMIN));
+        userRepository.flush();
+
+        UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(user.getId());
+        assertEquals(2, principal.getAuthorities().size());
+        assertEquals(1, principal.getTokenVersion());
+    }
+
+    @Test
+    void testInvalidationDuringLoadIsNotUndone() {
+        UserStateCache<Long, String> cache = new UserStateCache<>(100, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        // A revocation that commits while a load of the old state is still running
+        String stale = cache.get(1L, key -> {
+            loads.incrementAndGet();
+            cache.invalidate(key);
+            return "stale";
+        });
+        String fresh = cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return "fresh";
+        });
+
+        assertEquals("stale", stale);
+        assertEquals("fresh", fresh);
+        assertEquals(2, loads.get());
+        assertEquals("fresh", cache.get(1L, key -> "reloaded"));
+    }
+
+    private CacheStatsDTO byIdStats() {
+        return customUserDetailsService.stats().stream()
+                .filter(stats -> CustomUserDetailsService.BY_ID_CACHE.equals(stats.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -1,6 +1,7 @@
 package com.blog.security;
 
 import com.blog.entity.User;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +17,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ActiveProfiles("test")
 class JwtTokenProviderTest {
 
+    private static final String OLD_SECRET = "old-secret-key-for-testing-rotation-purposes-only";
+    private static final String NEW_SECRET = "new-secret-key-for-testing-rotation-purposes-only";
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -71,5 +76,55 @@ class JwtTokenProviderTest {
 
         assertEquals("testuser", username);
     }
-}
 
+    @Test
+    void testParseClaims() {
+        String token = tokenProvider.generateToken(authentication);
+
+        Claims claims = tokenProvider.parseClaims(token).orElseThrow();
+
+        assertEquals("1", claims.getSubject());
+        assertEquals("testuser", claims.get("username", String.class));
+        assertEquals("ROLE_USER", claims.get("authorities", String.class));
+    }
+
+    @Test
+    void testUserPrincipalFromClaims() {
+        userPrincipal.setTokenVersion(3);
+        String token = tokenProvider.generateToken(authentication);
+
+        UserPrincipal fromClaims = UserPrincipal.fromClaims(tokenProvider.parseClaims(token).orElseThrow());
+
+        assertEquals(1L, fromClaims.getId());
+        assertEquals("testuser", fromClaims.getUsername());
+        assertEquals(3, fromClaims.getTokenVersion());
+        assertEquals("ROLE_USER", fromClaims.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void testParseClaimsInvalidToken() {
+        assertTrue(tokenProvider.parseClaims("invalid.token.here").isEmpty());
+    }
+
+    @Test
+    void testTokenSignedWithRetiredKey() {
+        String token = newProvider("old", OLD_SECRET, "").generateToken(authentication);
+
+        JwtTokenProvider rotated = newProvider("new", NEW_SECRET, "old:" + OLD_SECRET);
+        JwtTokenProvider retired = newProvider("new", NEW_SECRET, "");
+
+        assertTrue(rotated.validateToken(token));
+        assertEquals(1L, rotated.getUserIdFromToken(token));
+        assertFalse(retired.validateToken(token));
+    }
+
+    private JwtTokenProvider newProvider(String keyId, String secret, String previousSecrets) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 60000L);
+        ReflectionTestUtils.setField(provider, "keyId", keyId);
+        ReflectionTestUtils.setField(provider, "previousSecrets", previousSecrets);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,172 @@
+package com.blog.security;
+
+import com.blog.dto.AuthRequest;
+import com.blog.dto.AuthResponse;
+import com.blog.dto.RegisterRequest;
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import com.blog.service.AuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.security.password-hashing.threads=1",
+        "app.security.password-hashing.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class PasswordHashingBulkheadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordHashingBulkhead bulkhead;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User user = new User();
+        user.setUsername("hashuser");
+        user.setEmail("hashuser@example.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        userRepository.save(user);
+    }
+
+    @Test
+    void testHashingRunsOnThePoolAndIsTimed() throws Exception {
+        long before = hashCount("matches");
+
+        String thread = bulkhead.run("matches", () -> Thread.currentThread().getName());
+
+        assertTrue(thread.startsWith("password-hash-"), thread);
+        assertEquals(before + 1, hashCount("matches"));
+        assertTrue(passwordEncoder.matches("password123", passwordEncoder.encode("password123")));
+    }
+
+    @Test
+    void testLoginIsRejectedWhenPoolIsSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One hash occupies the only thread, a second fills the queue
+            Future<?> running = callers.submit(() -> bulkhead.run("matches", () -> {
+                started.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> queued = callers.submit(() -> bulkhead.run("matches", () -> true));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.getQueueSize() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, bulkhead.getQueueSize());
+
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AuthRequest("hashuser", "password123"))))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("hashuser", "password123"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testRegistrationHoldsNoConnectionWhileWaitingToHash() throws Exception {
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> running = callers.submit(() -> bulkhead.run("matches", () -> {
+                started.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            RegisterRequest request = new RegisterRequest();
+            request.setUsername("queueduser");
+            request.setEmail("queueduser@example.com");
+            request.setPassword("password123");
+            Future<AuthResponse> registered = callers.submit(() -> authService.register(request));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.getQueueSize() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, bulkhead.getQueueSize());
+
+            // The signup's hash is queued, and no connection is checked out for it
+            assertEquals(0, pool.getActiveConnections());
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            assertNotNull(registered.get(5, TimeUnit.SECONDS).getId());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            // Nothing rolls back outside a transaction
+            userRepository.deleteAll();
+        }
+    }
+
+    private long hashCount(String operation) {
+        Timer timer = meterRegistry.find("blog.password.hash").tag("operation", operation).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
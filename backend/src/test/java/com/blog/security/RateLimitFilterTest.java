@@ -0,0 +1,179 @@
+package com.blog.security;
+
+import com.blog.dto.AuthRequest;
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.rate-limit.enabled=true",
+        "app.rate-limit.rules=POST /api/auth/login 2/1h ip, POST|PUT|DELETE /api/posts/** 1/1h user"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Each test uses its own addresses, since buckets outlive a test in the shared context
+
+    @Test
+    void testLoginIsLimitedPerAddress() throws Exception {
+        double rejectedBefore = rejected("POST /api/auth/login");
+
+        mockMvc.perform(login("10.0.0.1")).andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        mockMvc.perform(login("10.0.0.1")).andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        mockMvc.perform(login("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").exists());
+
+        // Another client has its own bucket
+        mockMvc.perform(login("10.0.0.2")).andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        assertEquals(rejectedBefore + 1, rejected("POST /api/auth/login"));
+    }
+
+    @Test
+    void testEncodedPathSharesTheLimit() throws Exception {
+        // Routed to the login endpoint like the plain path
+        mockMvc.perform(login("10.0.2.1", URI.create("/%61pi/auth/login")))
+                .andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        mockMvc.perform(login("10.0.2.1", URI.create("/api/auth/%6cogin")))
+                .andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        mockMvc.perform(login("10.0.2.1", URI.create("/%61pi/auth/login")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(login("10.0.2.1"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testWritesAreLimitedPerUserAcrossAddresses() throws Exception {
+        User user = new User();
+        user.setUsername("ratelimited");
+        user.setEmail("ratelimited@example.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        user = userRepository.saveAndFlush(user);
+        String token = tokenProvider.generateToken(UserPrincipal.create(user));
+
+        mockMvc.perform(deletePost("10.0.1.1", token))
+                .andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        mockMvc.perform(deletePost("10.0.1.2", token))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testRetryAfterCoversTheRefill() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+        ReflectionTestUtils.setField(store, "idleTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(store, "maximumKeys", 100L);
+        store.init();
+        RateLimitRule rule = RateLimitRule.parse("* /** 2/1m ip").get(0);
+
+        assertTrue(store.tryAcquire("k", rule).allowed());
+        assertTrue(store.tryAcquire("k", rule).allowed());
+        RateLimitDecision decision = store.tryAcquire("k", rule);
+
+        assertFalse(decision.allowed());
+        // One permit refills every 30 seconds
+        assertTrue(decision.retryAfter().compareTo(Duration.ofSeconds(25)) > 0, decision.retryAfter().toString());
+        assertTrue(decision.retryAfter().compareTo(Duration.ofSeconds(30)) <= 0, decision.retryAfter().toString());
+    }
+
+    @Test
+    void testBucketOutlivesIdleTimeoutUntilItsPeriodEnds() throws InterruptedException {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+        ReflectionTestUtils.setField(store, "idleTimeout", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(store, "maximumKeys", 100L);
+        store.init();
+        RateLimitRule rule = RateLimitRule.parse("* /** 1/1h ip").get(0);
+
+        assertTrue(store.tryAcquire("k", rule).allowed());
+        Thread.sleep(50);
+
+        // Expiring after the idle timeout would hand out a fresh, full bucket here
+        assertFalse(store.tryAcquire("k", rule).allowed());
+    }
+
+    @Test
+    void testParseRules() {
+        List<RateLimitRule> rules = RateLimitRule.parse("POST|put /api/auth/** 20/1m ip, * /api/** 5/10s user");
+
+        assertEquals(2, rules.size());
+        assertEquals(Set.of("POST", "PUT"), rules.get(0).methods());
+        assertTrue(rules.get(0).matches("PUT", "/api/auth/login"));
+        assertFalse(rules.get(0).matches("GET", "/api/auth/login"));
+        assertEquals(Duration.ofSeconds(10), rules.get(1).period());
+        assertEquals(RateLimitRule.Key.USER, rules.get(1).key());
+        assertTrue(rules.get(1).matches("GET", "/api/posts/1"));
+        assertThrows(IllegalStateException.class, () -> RateLimitRule.parse("POST /api/** 20 ip"));
+    }
+
+    private MockHttpServletRequestBuilder login(String address) throws Exception {
+        return login(address, URI.create("/api/auth/login"));
+    }
+
+    // A URI rather than a template, so the path reaches the filter exactly as written
+    private MockHttpServletRequestBuilder login(String address, URI uri) throws Exception {
+        return post(uri)
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("nobody", "password123")));
+    }
+
+    private MockHttpServletRequestBuilder deletePost(String address, String token) {
+        return delete("/api/posts/999999")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private double rejected(String rule) {
+        Counter counter = meterRegistry.find("blog.rate-limit.rejected").tag("rule", rule).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -5,6 +5,8 @@ import com.blog.dto.AuthResponse;
 import com.blog.dto.RegisterRequest;
 import com.blog.entity.User;
 import com.blog.repository.UserRepository;
+import com.blog.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.blog.monitoring.QueryCounter.assertMaxQueryCount;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -29,6 +32,9 @@ class AuthServiceTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -55,6 +61,21 @@ class AuthServiceTest {
         assertTrue(passwordEncoder.matches("password123", savedUser.getPassword()));
     }
 
+    @Test
+    void testRegisterInsertsWithoutReloadingUser() throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("fastuser");
+        request.setEmail("fastuser@example.com");
+        request.setPassword("password123");
+
+        // The user row and its role; no existence checks and no reload to re-verify the password
+        AuthResponse response = assertMaxQueryCount(2, () -> authService.register(request));
+
+        Claims claims = tokenProvider.parseClaims(response.getToken()).orElseThrow();
+        assertEquals(response.getId().toString(), claims.getSubject());
+        assertEquals("ROLE_USER", claims.get(JwtTokenProvider.AUTHORITIES_CLAIM, String.class));
+    }
+
     @Test
     void testRegisterDuplicateUsername() {
         // Create existing user
@@ -69,7 +90,8 @@ class AuthServiceTest {
         request.setEmail("new@example.com");
         request.setPassword("password123");
 
-        assertThrows(RuntimeException.class, () -> authService.register(request));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.register(request));
+        assertEquals("Username is already taken!", e.getMessage());
     }
 
     @Test
@@ -86,7 +108,8 @@ class AuthServiceTest {
         request.setEmail("existing@example.com");
         request.setPassword("password123");
 
-        assertThrows(RuntimeException.class, () -> authService.register(request));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.register(request));
+        assertEquals("Email is already in use!", e.getMessage());
     }
 
     @Test
@@ -0,0 +1,157 @@
+package com.blog.service;
+
+import com.blog.dto.PostDTO;
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostExportServiceTest {
+
+    @Autowired
+    private PostExportService postExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private User author;
+    private Category category;
+    private Tag tag;
+
+    @BeforeEach
+    @SuppressWarnings("null")
+    void setUp() {
+        postRepository.deleteAll();
+        tagRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        author = new User();
+        author.setUsername("exporter");
+        author.setEmail("exporter@example.com");
+        author.setPassword("password123");
+        author = userRepository.save(author);
+
+        category = new Category();
+        category.setName("Technology");
+        category.setDescription("Tech posts");
+        category = categoryRepository.save(category);
+
+        tag = new Tag();
+        tag.setName("Java");
+        tag = tagRepository.save(tag);
+    }
+
+    @Test
+    void testWriteAllPosts() throws Exception {
+        Post tagged = new Post();
+        tagged.setTitle("Tagged post");
+        tagged.setContent("<p>Tagged content</p>");
+        tagged.setAuthor(author);
+        tagged.setCategory(category);
+        tagged.setTags(Set.of(tag));
+        postRepository.save(tagged);
+
+        Post plain = new Post();
+        plain.setTitle("Plain post");
+        plain.setContent("Plain content");
+        plain.setAuthor(author);
+        postRepository.save(plain);
+        postRepository.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postExportService.writeAllPosts(out);
+
+        List<PostDTO> posts = objectMapper.readValue(out.toByteArray(), new TypeReference<List<PostDTO>>() { });
+        assertEquals(2, posts.size());
+
+        PostDTO first = posts.get(0);
+        assertEquals("Tagged post", first.getTitle());
+        assertEquals("<p>Tagged content</p>", first.getContent());
+        assertEquals("exporter", first.getAuthorUsername());
+        assertEquals("Technology", first.getCategoryName());
+        assertEquals(1, first.getTags().size());
+        assertEquals("Java", first.getTags().iterator().next().getName());
+
+        PostDTO second = posts.get(1);
+        assertNull(second.getCategoryId());
+        assertTrue(second.getTags().isEmpty());
+    }
+
+    @Test
+    void testExportPastItsTimeoutIsAborted() {
+        Post post = new Post();
+        post.setTitle("Slow post");
+        post.setContent("Slow content");
+        post.setAuthor(author);
+        postRepository.saveAndFlush(post);
+
+        Duration timeout = (Duration) ReflectionTestUtils.getField(postExportService, "timeout");
+        ReflectionTestUtils.setField(postExportService, "timeout", Duration.ZERO);
+        try {
+            RuntimeException e = assertThrows(RuntimeException.class,
+                    () -> postExportService.writeAllPosts(new ByteArrayOutputStream()));
+            assertTrue(e.getMessage().startsWith("Export did not finish"), e.getMessage());
+        } finally {
+            ReflectionTestUtils.setField(postExportService, "timeout", timeout);
+        }
+    }
+
+    @Test
+    void testConcurrentExportsAreCapped() {
+        // Two slots by default
+        assertTrue(postExportService.tryStartExport());
+        assertTrue(postExportService.tryStartExport());
+        try {
+            assertFalse(postExportService.tryStartExport());
+        } finally {
+            postExportService.finishExport();
+            postExportService.finishExport();
+        }
+        assertTrue(postExportService.tryStartExport());
+        postExportService.finishExport();
+    }
+
+    @Test
+    void testWriteAllPostsEmpty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postExportService.writeAllPosts(out);
+
+        assertEquals("[]", out.toString());
+    }
+}
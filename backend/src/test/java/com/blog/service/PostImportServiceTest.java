@@ -0,0 +1,103 @@
+package com.blog.service;
+
+import com.blog.dto.PostImportErrorDTO;
+import com.blog.dto.PostImportResultDTO;
+import com.blog.entity.Post;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import com.blog.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostImportServiceTest {
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private Tag tag;
+    private UserDetails authorDetails;
+
+    @BeforeEach
+    @SuppressWarnings("null")
+    void setUp() {
+        postRepository.deleteAll();
+        tagRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User author = new User();
+        author.setUsername("importer");
+        author.setEmail("importer@example.com");
+        author.setPassword("password123");
+        author = userRepository.save(author);
+        authorDetails = UserPrincipal.create(author);
+
+        tag = new Tag();
+        tag.setName("Java");
+        tag = tagRepository.save(tag);
+    }
+
+    @Test
+    void testImportPosts() throws Exception {
+        String body = String.join("\n",
+                "{\"title\": \"First import\", \"content\": \"Body one\", \"tagIds\": [" + tag.getId() + "]}",
+                "",
+                "{\"title\": \"Second import\", \"content\": \"Body two\", \"tagNames\": [\"Java\", \"migration\"]}",
+                "{not json",
+                "{\"title\": \"No\", \"content\": \"Title too short\"}",
+                "{\"title\": \"Unknown tag\", \"content\": \"Body\", \"tagIds\": [999998, 999999]}");
+
+        PostImportResultDTO result = postImportService.importPosts(ndjson(body), authorDetails);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(4L, 5L, 6L),
+                result.getErrors().stream().map(PostImportErrorDTO::getLine).collect(Collectors.toList()));
+        assertEquals("Tags not found with ids: [999998, 999999]", result.getErrors().get(2).getMessage());
+
+        List<Post> posts = postRepository.findAllWithRelations();
+        assertEquals(2, posts.size());
+        Post second = posts.stream().filter(post -> post.getTitle().equals("Second import")).findFirst().orElseThrow();
+        assertEquals(Set.of("Java", "migration"),
+                second.getTags().stream().map(Tag::getName).collect(Collectors.toSet()));
+        assertEquals("importer", second.getAuthor().getUsername());
+        assertTrue(tagRepository.existsByName("migration"));
+    }
+
+    private static InputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,15 @@
 package com.blog.service;
 
+import com.blog.dto.CacheStatsDTO;
+import com.blog.dto.CursorPage;
 import com.blog.dto.PostDTO;
+import com.blog.dto.PostFilter;
 import com.blog.dto.PostRequest;
+import com.blog.dto.PostSearchHitDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.dto.SearchPage;
+import com.blog.dto.TagDTO;
+import com.blog.dto.TagRequest;
 import com.blog.entity.Category;
 import com.blog.entity.Post;
 import com.blog.entity.Tag;
@@ -11,6 +19,9 @@ import com.blog.repository.PostRepository;
 import com.blog.repository.TagRepository;
 import com.blog.repository.UserRepository;
 import com.blog.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +30,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import static com.blog.monitoring.QueryCounter.assertMaxQueryCount;
+import static com.blog.monitoring.QueryCounter.assertQueryCount;
+import static com.blog.monitoring.QueryCounter.count;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -45,6 +62,21 @@ class PostServiceTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User author;
     private User admin;
     private Category category;
@@ -110,6 +142,214 @@ class PostServiceTest {
         assertEquals(2, posts.size());
     }
 
+    @Test
+    void testGetPostsWithCursor() {
+        for (int i = 1; i <= 5; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            post.setTags(Set.of(tag1));
+            postRepository.save(post);
+        }
+
+        CursorPage<PostSummaryDTO> first = postService.getPosts(null, 2);
+        CursorPage<PostSummaryDTO> second = postService.getPosts(first.getNextCursor(), 2);
+        CursorPage<PostSummaryDTO> third = postService.getPosts(second.getNextCursor(), 2);
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertEquals(1, third.getItems().size());
+        assertNotNull(first.getNextCursor());
+        assertNull(third.getNextCursor());
+        assertEquals(List.of("Java"), third.getItems().get(0).getTagNames());
+        assertEquals("Content 1", third.getItems().get(0).getExcerpt());
+
+        Set<Long> ids = new HashSet<>();
+        first.getItems().forEach(p -> ids.add(p.getId()));
+        second.getItems().forEach(p -> ids.add(p.getId()));
+        third.getItems().forEach(p -> ids.add(p.getId()));
+        assertEquals(5, ids.size());
+    }
+
+    @Test
+    void testGetPostsFiltered() {
+        for (int i = 1; i <= 3; i++) {
+            Post post = new Post();
+            post.setTitle("Tech " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            post.setCategory(category);
+            post.setTags(Set.of(tag1));
+            postRepository.save(post);
+        }
+        Post byAdmin = new Post();
+        byAdmin.setTitle("Admin Post");
+        byAdmin.setContent("Content");
+        byAdmin.setAuthor(admin);
+        byAdmin.setCategory(category);
+        byAdmin.setTags(Set.of(tag2));
+        postRepository.save(byAdmin);
+        Post uncategorized = new Post();
+        uncategorized.setTitle("Uncategorized");
+        uncategorized.setContent("Content");
+        uncategorized.setAuthor(author);
+        uncategorized.setTags(Set.of(tag1, tag2));
+        postRepository.save(uncategorized);
+        startFromDatabase();
+
+        assertEquals(4, postService.getPosts(new PostFilter(author.getId(), null, null), null, 10).getItems().size());
+        assertEquals(4, postService.getPosts(new PostFilter(null, category.getId(), null), null, 10).getItems().size());
+        assertEquals(2, postService.getPosts(new PostFilter(null, null, tag2.getId()), null, 10).getItems().size());
+
+        PostFilter combined = new PostFilter(author.getId(), category.getId(), tag1.getId());
+        CursorPage<PostSummaryDTO> first = postService.getPosts(combined, null, 2);
+        CursorPage<PostSummaryDTO> second = postService.getPosts(combined, first.getNextCursor(), 2);
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        List<String> titles = new ArrayList<>();
+        first.getItems().forEach(p -> titles.add(p.getTitle()));
+        second.getItems().forEach(p -> titles.add(p.getTitle()));
+        assertEquals(List.of("Tech 3", "Tech 2", "Tech 1"), titles);
+    }
+
+    @Test
+    void testFilteredPostsQueryCountDoesNotGrowWithPageSize() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            savePostWithTags("Post " + i, 3);
+        }
+        startFromDatabase();
+        PostFilter filter = new PostFilter(author.getId(), category.getId(), null);
+
+        CursorPage<PostSummaryDTO> small = assertQueryCount(3, () -> postService.getPosts(filter, null, 5));
+        CursorPage<PostSummaryDTO> large = assertQueryCount(3, () -> postService.getPosts(filter, null, 25));
+        assertQueryCount(3, () -> postService.getPosts(filter, small.getNextCursor(), 5));
+
+        assertEquals(25, large.getItems().size());
+        assertNotEquals(postService.getPostsVersion(filter, null, 5).etag(),
+                postService.getPostsVersion(PostFilter.NONE, null, 5).etag());
+    }
+
+    @Test
+    void testGetPostsByTags() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Post post = new Post();
+            post.setTitle("Java Spring " + i);
+            post.setContent("Content " + i);
+            post.setAuthor(author);
+            post.setTags(Set.of(tag1, tag2));
+            postRepository.save(post);
+        }
+        Post javaOnly = new Post();
+        javaOnly.setTitle("Java Only");
+        javaOnly.setContent("Content");
+        javaOnly.setAuthor(author);
+        javaOnly.setTags(Set.of(tag1));
+        postRepository.save(javaOnly);
+        startFromDatabase();
+        postTagIndex.rebuild();
+
+        // Tag names, summaries, tag names of the page; the boolean expression costs no query
+        CursorPage<PostSummaryDTO> first = assertQueryCount(3,
+                () -> postService.getPostsByTags(List.of("Java", "Spring"), null, null, null, 2));
+        CursorPage<PostSummaryDTO> second = postService.getPostsByTags(List.of("Java", "Spring"), null, null,
+                first.getNextCursor(), 2);
+
+        assertEquals(List.of("Java Spring 3", "Java Spring 2"),
+                first.getItems().stream().map(PostSummaryDTO::getTitle).collect(Collectors.toList()));
+        assertEquals(List.of("Java Spring 1"),
+                second.getItems().stream().map(PostSummaryDTO::getTitle).collect(Collectors.toList()));
+        assertNull(second.getNextCursor());
+
+        assertEquals(List.of("Java Only"), postService.getPostsByTags(List.of("Java"), null, List.of("Spring"), null, 10)
+                .getItems().stream().map(PostSummaryDTO::getTitle).collect(Collectors.toList()));
+        assertEquals(4, postService.getPostsByTags(null, List.of("Spring", "Java", "Unknown"), null, null, 10)
+                .getItems().size());
+        assertTrue(postService.getPostsByTags(List.of("Java", "Unknown"), null, null, null, 10).getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getPostsByTags(null, null, List.of("Java"), null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getPostsByTags(List.of("Java"), null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetPostsInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> postService.getPosts("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> postService.getPosts(null, 0));
+    }
+
+    @Test
+    void testServiceCallsAreTimed() {
+        long succeeded = serviceTimerCount("getPosts", "none");
+        long failed = serviceTimerCount("getPosts", "IllegalArgumentException");
+
+        postService.getPosts(null, 10);
+        postService.getPosts(null, 10);
+        assertThrows(IllegalArgumentException.class, () -> postService.getPosts(null, 0));
+
+        assertEquals(succeeded + 2, serviceTimerCount("getPosts", "none"));
+        assertEquals(failed + 1, serviceTimerCount("getPosts", "IllegalArgumentException"));
+    }
+
+    private long serviceTimerCount(String method, String exception) {
+        return meterRegistry.find("blog.service")
+                .tag("class", PostService.class.getName())
+                .tag("method", method)
+                .tag("exception", exception)
+                .timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    @Test
+    void testSearchPosts() {
+        Post titleMatch = new Post();
+        titleMatch.setTitle("Spring Boot tips");
+        titleMatch.setContent("<p>Notes on Spring configuration</p>");
+        titleMatch.setAuthor(author);
+        titleMatch = postRepository.save(titleMatch);
+
+        Post bodyMatch = new Post();
+        bodyMatch.setTitle("Weekly notes");
+        bodyMatch.setContent("<p>Tried Spring once</p>");
+        bodyMatch.setAuthor(author);
+        bodyMatch = postRepository.save(bodyMatch);
+
+        Post noMatch = new Post();
+        noMatch.setTitle("Gardening");
+        noMatch.setContent("<p>Tomatoes</p>");
+        noMatch.setAuthor(author);
+        postRepository.save(noMatch);
+
+        SearchPage<PostSearchHitDTO> results = postService.searchPosts("spring", 0, 10);
+
+        assertEquals(2, results.getResults().size());
+        assertFalse(results.isHasMore());
+        assertEquals(titleMatch.getId(), results.getResults().get(0).getId());
+        assertEquals(bodyMatch.getId(), results.getResults().get(1).getId());
+        assertTrue(results.getResults().get(1).getSnippet().contains("<mark>Spring</mark>"));
+
+        SearchPage<PostSearchHitDTO> secondPage = postService.searchPosts("spring", 1, 1);
+        assertEquals(1, secondPage.getResults().size());
+        assertEquals(bodyMatch.getId(), secondPage.getResults().get(0).getId());
+    }
+
+    @Test
+    void testSearchPostsRequiresQuery() {
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts(" ", 0, 10));
+    }
+
+    @Test
+    void testSearchPostsFarPageIsEmpty() {
+        // page * size does not fit an int
+        SearchPage<PostSearchHitDTO> results = postService.searchPosts("spring", Integer.MAX_VALUE, 10);
+
+        assertTrue(results.getResults().isEmpty());
+        assertFalse(results.isHasMore());
+    }
+
     @Test
     @SuppressWarnings("null")
     void testGetPostById() {
@@ -130,6 +370,170 @@ class PostServiceTest {
         assertEquals(2, dto.getTags().size());
     }
 
+    @Test
+    @SuppressWarnings("null")
+    void testGetPostByIdIsCachedUntilWrite() {
+        Post post = new Post();
+        post.setTitle("Cached Post");
+        post.setContent("Cached Content");
+        post.setAuthor(author);
+        post.setTags(Set.of(tag1));
+        Long id = postRepository.save(post).getId();
+
+        CacheStatsDTO before = postCache.stats();
+        postService.getPostById(id);
+        postService.getPostById(id);
+        CacheStatsDTO after = postCache.stats();
+        assertEquals(before.getMissCount() + 1, after.getMissCount());
+        assertEquals(before.getHitCount() + 1, after.getHitCount());
+        assertEquals(after.getHitCount(),
+                meterRegistry.get("cache.gets").tags("cache", PostCache.NAME, "result", "hit").functionCounter().count());
+
+        tagService.updateTag(tag1.getId(), new TagRequest("Kotlin"));
+        assertEquals("Kotlin", postService.getPostById(id).getTags().iterator().next().getName());
+
+        PostRequest request = new PostRequest();
+        request.setTitle("Updated Title");
+        request.setContent("Cached Content");
+        postService.updatePost(id, request, authorDetails);
+        assertEquals("Updated Title", postService.getPostById(id).getTitle());
+
+        postService.deletePost(id, authorDetails);
+        assertThrows(RuntimeException.class, () -> postService.getPostById(id));
+    }
+
+    @Test
+    void testGetPostByIdQueryCount() throws Exception {
+        Long id = savePostWithTags("Counted Post", 5);
+        startFromDatabase(id);
+
+        assertQueryCount(1, () -> postService.getPostById(id));
+        assertQueryCount(0, () -> postService.getPostById(id));
+    }
+
+    @Test
+    void testGetAllPostsQueryCount() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            savePostWithTags("Post " + i, 3);
+        }
+        startFromDatabase();
+
+        List<PostDTO> posts = assertQueryCount(1, () -> postService.getAllPosts());
+        assertEquals(10, posts.size());
+    }
+
+    @Test
+    void testGetPostsQueryCountDoesNotGrowWithPageSize() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            savePostWithTags("Post " + i, 3);
+        }
+        startFromDatabase();
+
+        // Page ids, summaries with author and category, tag names
+        CursorPage<PostSummaryDTO> small = assertQueryCount(3, () -> postService.getPosts(null, 5));
+        CursorPage<PostSummaryDTO> large = assertQueryCount(3, () -> postService.getPosts(null, 25));
+        assertQueryCount(3, () -> postService.getPosts(small.getNextCursor(), 5));
+
+        assertEquals(25, large.getItems().size());
+        assertTrue(large.getItems().stream().allMatch(summary -> summary.getTagNames().size() == 3));
+    }
+
+    @Test
+    void testCreatePostQueryCountDoesNotGrowWithTags() throws Exception {
+        startFromDatabase();
+        int withTwoTags = count(() -> {
+            postService.createPost(requestWithTagNames("Two Tags", 2), authorDetails);
+            entityManager.flush();
+        }).getQueryCount();
+
+        startFromDatabase();
+        // Author, tag upsert, tag lookup, post insert, one batch of post_tags rows
+        assertMaxQueryCount(5, () -> {
+            postService.createPost(requestWithTagNames("Twenty Tags", 20), authorDetails);
+            entityManager.flush();
+        });
+        startFromDatabase();
+        int withTwentyTags = count(() -> {
+            postService.createPost(requestWithTagNames("Twenty More Tags", 20), authorDetails);
+            entityManager.flush();
+        }).getQueryCount();
+
+        assertEquals(withTwoTags, withTwentyTags);
+    }
+
+    @Test
+    void testUpdatePostQueryCountDoesNotGrowWithTags() throws Exception {
+        Long id = savePostWithTags("Counted Post", 2);
+        List<Long> tagIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Tag tag = new Tag();
+            tag.setName("Extra " + i);
+            tagIds.add(tagRepository.save(tag).getId());
+        }
+
+        PostRequest fewTags = new PostRequest();
+        fewTags.setTitle("Updated");
+        fewTags.setContent("Updated Content");
+        fewTags.setCategoryId(category.getId());
+        fewTags.setTagIds(new HashSet<>(tagIds.subList(0, 2)));
+        startFromDatabase(id);
+        int withTwoTags = count(() -> {
+            postService.updatePost(id, fewTags, authorDetails);
+            entityManager.flush();
+        }).getQueryCount();
+
+        PostRequest manyTags = new PostRequest();
+        manyTags.setTitle("Updated Again");
+        manyTags.setContent("Updated Content");
+        manyTags.setCategoryId(category.getId());
+        manyTags.setTagIds(new HashSet<>(tagIds));
+        startFromDatabase(id);
+        int withTwentyTags = count(() -> {
+            postService.updatePost(id, manyTags, authorDetails);
+            entityManager.flush();
+        }).getQueryCount();
+
+        assertEquals(withTwoTags, withTwentyTags);
+        assertTrue(withTwentyTags <= 8, "updatePost executed " + withTwentyTags + " statements");
+    }
+
+    // Creates a post with the given number of new tags and returns its id
+    private Long savePostWithTags(String title, int tagCount) {
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            Tag tag = new Tag();
+            tag.setName(title + " tag " + i);
+            tags.add(tagRepository.save(tag));
+        }
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(title + " content");
+        post.setAuthor(author);
+        post.setCategory(category);
+        post.setTags(tags);
+        return postRepository.save(post).getId();
+    }
+
+    private PostRequest requestWithTagNames(String title, int tagCount) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            names.add("Tag " + i);
+        }
+        PostRequest request = new PostRequest();
+        request.setTitle(title);
+        request.setContent(title + " content");
+        request.setTagNames(names);
+        return request;
+    }
+
+    // Writes pending changes and empties the persistence context and post cache, so the next
+    // operation has to load everything it needs from the database
+    private void startFromDatabase(Long... postIds) {
+        entityManager.flush();
+        entityManager.clear();
+        postCache.evict(List.of(postIds));
+    }
+
     @Test
     void testGetPostByIdNotFound() {
         assertThrows(RuntimeException.class, () -> postService.getPostById(999L));
@@ -153,6 +557,35 @@ class PostServiceTest {
         assertEquals(2, dto.getTags().size());
     }
 
+    @Test
+    void testCreatePostWithMissingTags() {
+        PostRequest request = new PostRequest();
+        request.setTitle("New Post");
+        request.setContent("New Content");
+        request.setTagIds(Set.of(tag1.getId(), 999998L, 999999L));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> postService.createPost(request, authorDetails));
+
+        assertEquals("Tags not found with ids: [999998, 999999]", e.getMessage());
+    }
+
+    @Test
+    void testCreatePostWithTagNames() {
+        PostRequest request = new PostRequest();
+        request.setTitle("New Post");
+        request.setContent("New Content");
+        request.setTagIds(Set.of(tag1.getId()));
+        request.setTagNames(Set.of("Spring", " Hibernate ", "Postgres"));
+
+        PostDTO dto = postService.createPost(request, authorDetails);
+
+        assertEquals(Set.of("Java", "Spring", "Hibernate", "Postgres"),
+                dto.getTags().stream().map(TagDTO::getName).collect(Collectors.toSet()));
+        assertEquals(4, tagRepository.count());
+        assertEquals(tag2.getId(), tagRepository.findByName("Spring").orElseThrow().getId());
+    }
+
     @Test
     void testCreatePostWithoutCategory() {
         PostRequest request = new PostRequest();
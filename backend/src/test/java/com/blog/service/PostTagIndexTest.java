@@ -0,0 +1,162 @@
+package com.blog.service;
+
+import com.blog.dto.TagIndexStatsDTO;
+import com.blog.entity.Post;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.repository.PostRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostTagIndexTest {
+
+    @Autowired
+    private PostTagIndex postTagIndex;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User author;
+    private Tag java;
+    private Tag performance;
+    private Tag beginner;
+
+    @BeforeEach
+    void setUp() {
+        postRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+
+        author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPassword("password123");
+        author = userRepository.save(author);
+
+        java = saveTag("java");
+        performance = saveTag("performance");
+        beginner = saveTag("beginner");
+    }
+
+    @Test
+    void testBooleanQueries() {
+        Long javaOnly = savePost(java);
+        Long javaPerformance = savePost(java, performance);
+        Long javaPerformanceBeginner = savePost(java, performance, beginner);
+        Long beginnerOnly = savePost(beginner);
+        rebuild();
+
+        assertEquals(List.of(javaPerformanceBeginner, javaPerformance, javaOnly),
+                postTagIndex.query(List.of(java.getId()), List.of(), List.of(), null, 10));
+        assertEquals(List.of(javaPerformance),
+                postTagIndex.query(List.of(java.getId(), performance.getId()), List.of(), List.of(beginner.getId()), null, 10));
+        assertEquals(List.of(beginnerOnly, javaPerformanceBeginner, javaPerformance),
+                postTagIndex.query(List.of(), List.of(performance.getId(), beginner.getId()), List.of(), null, 10));
+        assertEquals(List.of(javaPerformance, javaOnly),
+                postTagIndex.query(List.of(java.getId()), List.of(), List.of(), javaPerformanceBeginner, 10));
+        assertEquals(List.of(), postTagIndex.query(List.of(java.getId(), -1L), List.of(), List.of(), null, 10));
+        assertEquals(2, postTagIndex.count(List.of(java.getId()), List.of(performance.getId()), List.of()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> postTagIndex.query(List.of(), List.of(), List.of(beginner.getId()), null, 10));
+    }
+
+    @Test
+    void testChangesApplyOnlyAfterCommit() {
+        Long id = savePost(java);
+        rebuild();
+
+        // The test transaction never commits, so neither change reaches the index
+        postTagIndex.setTags(id, List.of(performance.getId()));
+        postTagIndex.removePost(id);
+
+        assertEquals(List.of(id), postTagIndex.query(List.of(java.getId()), List.of(), List.of(), null, 10));
+        assertEquals(List.of(), postTagIndex.query(List.of(performance.getId()), List.of(), List.of(), null, 10));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSparseAndLateIdsKeepIdOrder() {
+        // Standalone and outside a transaction, so changes apply immediately
+        PostTagIndex index = new PostTagIndex();
+        // Spaced like generated ids from consecutive milliseconds
+        long base = 1L << 40;
+        index.addPosts(Map.of(base, List.of(1L), base + 8192, List.of(1L, 2L)));
+        // Older than the newest indexed post, as when a transaction commits late
+        index.setTags(base + 4096, List.of(1L, 2L));
+        index.setTags(base - 4096, List.of(2L));
+
+        assertEquals(List.of(base + 8192, base + 4096, base), index.query(List.of(1L), List.of(), List.of(), null, 10));
+        assertEquals(List.of(base + 8192, base + 4096, base - 4096),
+                index.query(List.of(2L), List.of(), List.of(), null, 10));
+        assertEquals(List.of(base + 4096, base - 4096), index.query(List.of(2L), List.of(), List.of(), base + 8192, 10));
+
+        index.removePost(base + 4096);
+
+        assertEquals(List.of(base + 8192, base), index.query(List.of(1L), List.of(), List.of(), null, 10));
+        assertEquals(3, index.stats().getPosts());
+        assertEquals(4, index.stats().getEntries());
+    }
+
+    @Test
+    void testStatsReportSize() {
+        for (int i = 0; i < 100; i++) {
+            savePost(java, performance);
+        }
+        rebuild();
+
+        TagIndexStatsDTO stats = postTagIndex.stats();
+
+        assertEquals(2, stats.getTags());
+        assertEquals(100, stats.getPosts());
+        assertEquals(200, stats.getEntries());
+        assertTrue(stats.getSizeInBytes() > 0);
+        assertEquals(Math.round(stats.getSizeInBytes() * 10_000.0), stats.getBytesPerMillionPosts());
+    }
+
+    private void rebuild() {
+        entityManager.flush();
+        postTagIndex.rebuild();
+    }
+
+    private Tag saveTag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return tagRepository.save(tag);
+    }
+
+    private Long savePost(Tag... tags) {
+        Post post = new Post();
+        post.setTitle("Post");
+        post.setContent("Content");
+        post.setAuthor(author);
+        post.setTags(Set.of(tags));
+        return postRepository.save(post).getId();
+    }
+}
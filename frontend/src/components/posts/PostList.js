@@ -1,6 +1,5 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import DOMPurify from 'dompurify';
 import { postService } from '../../services/postService';
 import { useAuth } from '../../context/AuthContext';
 import './Post.css';
@@ -8,7 +7,9 @@ import './Post.css';
 const PostList = () => {
   const { user } = useAuth();
   const [posts, setPosts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
 
   useEffect(() => {
@@ -18,8 +19,9 @@ const PostList = () => {
   const loadPosts = async () => {
     try {
       setLoading(true);
-      const data = await postService.getAll();
-      setPosts(data);
+      const page = await postService.getPage();
+      setPosts(page.posts);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       setError('Failed to load posts');
     } finally {
@@ -27,6 +29,19 @@ const PostList = () => {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await postService.getPage(nextCursor);
+      setPosts((current) => [...current, ...page.posts]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError('Failed to load posts');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this post?')) {
       try {
@@ -38,21 +53,6 @@ const PostList = () => {
     }
   };
 
-  // Strip HTML tags and get plain text preview
-  const getPlainTextPreview = (htmlContent, maxLength = 150) => {
-    // Create a temporary div to extract text content
-    const tempDiv = document.createElement('div');
-    tempDiv.innerHTML = DOMPurify.sanitize(htmlContent, { ALLOWED_TAGS: [] });
-    let text = tempDiv.textContent || tempDiv.innerText || '';
-    
-    // Trim and truncate
-    text = text.trim();
-    if (text.length > maxLength) {
-      text = text.substring(0, maxLength).trim() + '...';
-    }
-    return text;
-  };
-
   if (loading) {
     return <div className="loading">Loading posts...</div>;
   }
@@ -80,14 +80,12 @@ const PostList = () => {
                 {post.categoryName && <span> • {post.categoryName}</span>}
                 <span> • {new Date(post.createdAt).toLocaleDateString()}</span>
               </div>
-              <div className="post-content-preview">
-                {getPlainTextPreview(post.content)}
-              </div>
-              {post.tags && post.tags.length > 0 && (
+              <div className="post-content-preview">{post.excerpt}</div>
+              {post.tagNames && post.tagNames.length > 0 && (
                 <div className="post-tags">
-                  {post.tags.map((tag) => (
-                    <span key={tag.id} className="tag">
-                      {tag.name}
+                  {post.tagNames.map((tagName) => (
+                    <span key={tagName} className="tag">
+                      {tagName}
                     </span>
                   ))}
                 </div>
@@ -106,6 +104,13 @@ const PostList = () => {
           ))}
         </div>
       )}
+      {nextCursor && (
+        <div className="load-more">
+          <button onClick={loadMore} className="btn-primary" disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
@@ -18,20 +18,20 @@ describe('PostList', () => {
     {
       id: 1,
       title: 'Post 1',
-      content: 'Content 1'.repeat(20),
+      excerpt: 'Content 1',
       authorUsername: 'author1',
       categoryName: 'Tech',
       createdAt: '2024-01-01T00:00:00',
-      tags: [{ id: 1, name: 'Java' }],
+      tagNames: ['Java'],
     },
     {
       id: 2,
       title: 'Post 2',
-      content: 'Content 2'.repeat(20),
+      excerpt: 'Content 2',
       authorUsername: 'author2',
       categoryName: null,
       createdAt: '2024-01-02T00:00:00',
-      tags: [],
+      tagNames: [],
     },
   ];
 
@@ -44,7 +44,7 @@ describe('PostList', () => {
   };
 
   it('should render loading state initially', () => {
-    postService.getAll.mockImplementation(() => new Promise(() => {})); // Never resolves
+    postService.getPage.mockImplementation(() => new Promise(() => {})); // Never resolves
 
     renderPostList();
 
@@ -52,7 +52,7 @@ describe('PostList', () => {
   });
 
   it('should render posts after loading', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
 
     renderPostList();
 
@@ -64,10 +64,11 @@ describe('PostList', () => {
     expect(screen.getByText('By author1')).toBeInTheDocument();
     expect(screen.getByText('By author2')).toBeInTheDocument();
     expect(screen.getByText('Tech')).toBeInTheDocument();
+    expect(screen.getByText('Content 1')).toBeInTheDocument();
   });
 
   it('should show empty state when no posts', async () => {
-    postService.getAll.mockResolvedValue([]);
+    postService.getPage.mockResolvedValue({ posts: [], nextCursor: null });
 
     renderPostList();
 
@@ -77,7 +78,7 @@ describe('PostList', () => {
   });
 
   it('should show error message on load failure', async () => {
-    postService.getAll.mockRejectedValue(new Error('Failed to fetch'));
+    postService.getPage.mockRejectedValue(new Error('Failed to fetch'));
 
     renderPostList();
 
@@ -87,7 +88,7 @@ describe('PostList', () => {
   });
 
   it('should delete post when confirmed', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
     postService.delete.mockResolvedValue({});
     global.confirm.mockReturnValue(true);
 
@@ -103,12 +104,12 @@ describe('PostList', () => {
     await waitFor(() => {
       expect(global.confirm).toHaveBeenCalledWith('Are you sure you want to delete this post?');
       expect(postService.delete).toHaveBeenCalledWith(1);
-      expect(postService.getAll).toHaveBeenCalledTimes(2); // Initial load + reload after delete
+      expect(postService.getPage).toHaveBeenCalledTimes(2); // Initial load + reload after delete
     });
   });
 
   it('should not delete post when not confirmed', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
     global.confirm.mockReturnValue(false);
 
     renderPostList();
@@ -127,7 +128,7 @@ describe('PostList', () => {
   });
 
   it('should show error message on delete failure', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
     postService.delete.mockRejectedValue(new Error('Failed to delete'));
     global.confirm.mockReturnValue(true);
 
@@ -146,7 +147,7 @@ describe('PostList', () => {
   });
 
   it('should render tags when available', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
 
     renderPostList();
 
@@ -155,8 +156,28 @@ describe('PostList', () => {
     });
   });
 
+  it('should load the next page when load more is clicked', async () => {
+    postService.getPage
+      .mockResolvedValueOnce({ posts: [mockPosts[0]], nextCursor: 'cursor-1' })
+      .mockResolvedValueOnce({ posts: [mockPosts[1]], nextCursor: null });
+
+    renderPostList();
+
+    await waitFor(() => {
+      expect(screen.getByText('Post 1')).toBeInTheDocument();
+    });
+
+    fireEvent.click(screen.getByText('Load more'));
+
+    await waitFor(() => {
+      expect(postService.getPage).toHaveBeenLastCalledWith('cursor-1');
+      expect(screen.getByText('Post 2')).toBeInTheDocument();
+      expect(screen.queryByText('Load more')).not.toBeInTheDocument();
+    });
+  });
+
   it('should render create post link', async () => {
-    postService.getAll.mockResolvedValue(mockPosts);
+    postService.getPage.mockResolvedValue({ posts: mockPosts, nextCursor: null });
 
     renderPostList();
 
@@ -23,6 +23,35 @@ describe('postService', () => {
     });
   });
 
+  describe('getPage', () => {
+    it('should fetch the first page and return the next cursor', async () => {
+      const mockPosts = [{ id: 1, title: 'Post 1', content: 'Content 1' }];
+      api.get.mockResolvedValue({ data: mockPosts, headers: { 'x-next-cursor': 'abc' } });
+
+      const result = await postService.getPage();
+
+      expect(api.get).toHaveBeenCalledWith('/posts');
+      expect(result).toEqual({ posts: mockPosts, nextCursor: 'abc' });
+    });
+
+    it('should pass the cursor for following pages', async () => {
+      api.get.mockResolvedValue({ data: [], headers: {} });
+
+      const result = await postService.getPage('abc');
+
+      expect(api.get).toHaveBeenCalledWith('/posts', { params: { after: 'abc' } });
+      expect(result).toEqual({ posts: [], nextCursor: null });
+    });
+
+    it('should pass only the filters that are set', async () => {
+      api.get.mockResolvedValue({ data: [], headers: {} });
+
+      await postService.getPage('abc', { authorId: 3, categoryId: null, tagId: 7 });
+
+      expect(api.get).toHaveBeenCalledWith('/posts', { params: { authorId: 3, tagId: 7, after: 'abc' } });
+    });
+  });
+
   describe('getById', () => {
     it('should fetch a post by id', async () => {
       const mockPost = { id: 1, title: 'Post 1', content: 'Content 1' };
@@ -6,6 +6,27 @@ export const postService = {
     return response.data;
   },
 
+  // Fetches one page of posts; pass the returned nextCursor to get the following page.
+  // filters may hold authorId, categoryId and tagId; unset ones are left out of the request.
+  getPage: async (after, filters = {}) => {
+    const params = {};
+    ['authorId', 'categoryId', 'tagId'].forEach((key) => {
+      if (filters[key] !== undefined && filters[key] !== null && filters[key] !== '') {
+        params[key] = filters[key];
+      }
+    });
+    if (after) {
+      params.after = after;
+    }
+    const response = Object.keys(params).length > 0
+      ? await api.get('/posts', { params })
+      : await api.get('/posts');
+    return {
+      posts: response.data,
+      nextCursor: response.headers?.['x-next-cursor'] || null,
+    };
+  },
+
   getById: async (id) => {
     const response = await api.get(`/posts/${id}`);
     return response.data;